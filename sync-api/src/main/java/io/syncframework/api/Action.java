@@ -29,4 +29,9 @@ import java.lang.annotation.Target;
 public @interface Action {
 	public String type() default "text/html";
 	public Class<?>[] interceptedBy() default { Object.class };
+	/**
+	 * Actions declared as non blocking (not performing I/O nor waiting on locks) are executed
+	 * directly by the network I/O thread instead of being dispatched to a worker thread.
+	 */
+	public boolean blocking() default true;
 }
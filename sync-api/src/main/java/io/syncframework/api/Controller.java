@@ -27,6 +27,8 @@ import java.lang.annotation.Target;
  * <p>{@link #url()} declaration refers to the URLs which the @Controller will be bound to.
  * More to come when this project is fully documented</p>
  * 
+ * <p>{@link #scope()} declaration refers to the lifecycle of the @Controller instances; see {@link Scope}.</p>
+ * 
  * @author dfroz
  */
 @Retention(RetentionPolicy.RUNTIME)
@@ -34,4 +36,5 @@ import java.lang.annotation.Target;
 public @interface Controller {
 	public String url();
 	public SessionManager session() default SessionManager.DEFAULT;
+	public Scope scope() default Scope.REQUEST;
 }
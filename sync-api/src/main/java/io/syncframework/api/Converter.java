@@ -15,6 +15,11 @@
  */
 package io.syncframework.api;
 
+/**
+ * Converts the values of a request parameter to the type of a @Parameter. @Converters registered by the
+ * application are shared by concurrent requests and must be thread safe; a @Converter declared by
+ * @Parameter(converter=...) that is not registered is created for each request.
+ */
 public interface Converter<T> {
 	public T convert(String values[]) throws Exception;
 }
\ No newline at end of file
@@ -23,6 +23,10 @@ import java.lang.annotation.Target;
 /**
  * Each @Interceptor may declare two methods; before() and after(). Those methods will be called before
  * and after the execution of the requested @Controller
+ * 
+ * Instances are pooled and reused by other requests once their @Parameters and @Contexts are reset. An
+ * @Interceptor keeping state on any other field, declared or inherited, that is neither final nor static
+ * is not pooled: a new instance handles each request.
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.TYPE)
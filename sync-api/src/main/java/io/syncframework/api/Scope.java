@@ -0,0 +1,31 @@
+/*
+ * Copyright 2016-2017 SyncObjects Ltda.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syncframework.api;
+
+/**
+ * Lifecycle of the @Controller instances handling the requests.
+ * 
+ * REQUEST: a new instance handles each request.
+ * POOLED: instances are reused, one request at a time; their @Parameter and @Context fields are reset once the 
+ * request is handled. Any other instance field must be final or static.
+ * SINGLETON: one instance handles all requests concurrently; it shall declare no @Parameter nor @Context other 
+ * than the ApplicationContext, and any other instance field must be final or static.
+ * 
+ * @author dfroz
+ */
+public enum Scope {
+	REQUEST, POOLED, SINGLETON
+}
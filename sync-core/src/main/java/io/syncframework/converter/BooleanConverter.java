@@ -20,13 +20,18 @@ import io.syncframework.api.Converter;
 /**
  * @author dfroz
  */
-public class BooleanConverter implements Converter<Boolean> {
+public class BooleanConverter implements Converter<Boolean>, BooleanValueConverter {
 	public Boolean convert(String values[]) {
 		if(values == null || values.length == 0 || values[0].equals(""))
 			return null;
 		return Boolean.valueOf(values[0]);
 	}
 	
+	public boolean convertBoolean(CharSequence value) {
+		// as Boolean.valueOf(String)
+		return value.toString().equalsIgnoreCase("true");
+	}
+	
 	public String toString() {
 		return "BooleanConverter";
 	}
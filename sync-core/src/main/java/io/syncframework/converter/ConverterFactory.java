@@ -30,17 +30,30 @@ public class ConverterFactory {
 	private final Map<Class<?>, Converter<?>> converters = new ConcurrentHashMap<Class<?>, Converter<?>>();
 
 	public ConverterFactory() {
-		converters.put(Boolean.class, new BooleanConverter());
+		BooleanConverter booleanConverter = new BooleanConverter();
+		DoubleConverter doubleConverter = new DoubleConverter();
+		IntegerConverter integerConverter = new IntegerConverter();
+		LongConverter longConverter = new LongConverter();
+		converters.put(Boolean.class, booleanConverter);
 		converters.put(Boolean[].class, new BooleanArrayConverter());
-		converters.put(Double.class, new DoubleConverter());
+		converters.put(Double.class, doubleConverter);
 		converters.put(Double[].class, new DoubleArrayConverter());
 		// TODO: converters.put(FileUpload.class, new FileUploadConverter());
 		// TODO: converters.put(FileUpload[].class, new FileUploadArrayConverter());
-		converters.put(Integer.class, new IntegerConverter());
+		converters.put(Integer.class, integerConverter);
 		converters.put(Integer[].class, new IntegerArrayConverter());
 		converters.put(Locale.class, new LocaleConverter());
-		converters.put(Long.class, new LongConverter());
+		converters.put(Long.class, longConverter);
 		converters.put(Long[].class, new LongArrayConverter());
+		// primitives: converted by the Int|Long|Double|BooleanValueConverter interfaces, without boxing
+		converters.put(boolean.class, booleanConverter);
+		converters.put(boolean[].class, new BooleanValueArrayConverter());
+		converters.put(double.class, doubleConverter);
+		converters.put(double[].class, new DoubleValueArrayConverter());
+		converters.put(int.class, integerConverter);
+		converters.put(int[].class, new IntValueArrayConverter());
+		converters.put(long.class, longConverter);
+		converters.put(long[].class, new LongValueArrayConverter());
 		converters.put(String.class, new StringConverter());
 		converters.put(String[].class, new StringArrayConverter());
 		converters.put(Map.class, new StringMapConverter());
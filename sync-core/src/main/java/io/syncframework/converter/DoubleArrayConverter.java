@@ -16,6 +16,7 @@
 package io.syncframework.converter;
 
 import io.syncframework.api.Converter;
+import io.syncframework.util.NumberUtils;
 
 /**
  * @author dfroz
@@ -26,7 +27,7 @@ public class DoubleArrayConverter implements Converter<Double[]> {
 			return null;
 		Double doubles[] = new Double[values.length];
 		for(int i=0; i < values.length; i++)
-			doubles[i] = Double.valueOf(values[i]);
+			doubles[i] = NumberUtils.parseDouble(values[i]);
 		return doubles;
 	}
 	
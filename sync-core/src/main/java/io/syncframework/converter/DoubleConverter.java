@@ -16,15 +16,20 @@
 package io.syncframework.converter;
 
 import io.syncframework.api.Converter;
+import io.syncframework.util.NumberUtils;
 
 /**
  * @author dfroz
  */
-public class DoubleConverter implements Converter<Double> {
+public class DoubleConverter implements Converter<Double>, DoubleValueConverter {
 	public Double convert(String values[]) {
 		if(values == null || values.length == 0 || values[0].equals(""))
 			return null;
-		return Double.valueOf(values[0]);
+		return NumberUtils.parseDouble(values[0]);
+	}
+	
+	public double convertDouble(CharSequence value) {
+		return NumberUtils.parseDouble(value);
 	}
 	
 	public String toString() {
@@ -16,6 +16,7 @@
 package io.syncframework.converter;
 
 import io.syncframework.api.Converter;
+import io.syncframework.util.NumberUtils;
 
 /**
  * @author dfroz
@@ -26,7 +27,7 @@ public class IntegerArrayConverter implements Converter<Integer[]> {
 			throw new IllegalArgumentException("values");
 		Integer ints[] = new Integer[values.length];
 		for(int i=0; i < values.length; i++) {
-			ints[i] = Double.valueOf(values[i]).intValue();
+			ints[i] = NumberUtils.parseInt(values[i]);
 		}
 		return ints;
 	}
@@ -16,19 +16,23 @@
 package io.syncframework.converter;
 
 import io.syncframework.api.Converter;
+import io.syncframework.util.NumberUtils;
 
 /**
  * 
  * @author dfroz
  *
  */
-public class IntegerConverter implements Converter<Integer> {
+public class IntegerConverter implements Converter<Integer>, IntValueConverter {
 	public Integer convert(String values[]) {
 		if(values == null || values.length == 0 || values[0].equals(""))
 			return null;
 		if(values[0] == null || values[0].equals(""))
 			return null;
-		return Double.valueOf(values[0]).intValue();
+		return NumberUtils.parseInt(values[0]);
+	}
+	public int convertInt(CharSequence value) {
+		return NumberUtils.parseInt(value);
 	}
 	public String toString() {
 		return "IntegerConverter";
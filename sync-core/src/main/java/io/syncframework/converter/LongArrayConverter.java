@@ -16,6 +16,7 @@
 package io.syncframework.converter;
 
 import io.syncframework.api.Converter;
+import io.syncframework.util.NumberUtils;
 
 /**
  * @author dfroz
@@ -26,7 +27,7 @@ public class LongArrayConverter implements Converter<Long[]> {
 			return null;
 		Long longs[] = new Long[values.length];
 		for(int i=0; i < values.length; i++) {
-			longs[i] = Long.valueOf(values[i]);
+			longs[i] = NumberUtils.parseLong(values[i]);
 		}
 		return longs;
 	}
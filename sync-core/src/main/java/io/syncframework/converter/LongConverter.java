@@ -16,15 +16,19 @@
 package io.syncframework.converter;
 
 import io.syncframework.api.Converter;
+import io.syncframework.util.NumberUtils;
 
 /**
  * @author dfroz
  */
-public class LongConverter implements Converter<Long> {
+public class LongConverter implements Converter<Long>, LongValueConverter {
 	public Long convert(String values[]) {
 		if(values == null || values.length == 0 || values[0].equals(""))
 			return null;
-		return Long.valueOf(values[0]);
+		return NumberUtils.parseLong(values[0]);
+	}
+	public long convertLong(CharSequence value) {
+		return NumberUtils.parseLong(value);
 	}
 	public String toString() {
 		return "LongConverter";
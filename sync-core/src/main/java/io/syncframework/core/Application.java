@@ -32,7 +32,6 @@ import io.syncframework.i18n.MessageFactory;
 import io.syncframework.i18n.ResourceBundleMessageFactory;
 import io.syncframework.optimizer.Optimizer;
 import io.syncframework.responder.ResponderFactory;
-import io.syncframework.util.FileUtils;
 import io.syncframework.util.StringUtils;
 
 /**
@@ -68,10 +67,16 @@ public class Application {
 		classLoader = Thread.currentThread().getContextClassLoader();
 		
 		//
-		// Optimize Application
+		// Optimize Application, unless deployed with the classes optimized at build time
 		//
-		Optimizer optimizer = new Optimizer(this);
-		optimizer.optimize();
+		if(Optimizer.isOptimized(config.getWorkDirectory())) {
+			if(log.isInfoEnabled())
+				log.info("{} deployed with optimized classes; skipping optimization", this);
+		}
+		else {
+			Optimizer optimizer = new Optimizer(this);
+			optimizer.optimize();
+		}
 		//
 		// Initialize Application loader
 		//
@@ -142,17 +147,28 @@ public class Application {
 		if(!tmpdir.exists())
 			tmpdir.mkdirs();
 		config.setTmpDirectory(tmpdir);
+		// the work directory is kept across restarts: the Optimizer refreshes only the classes changed
 		File workdir = new File(base, "work");
-		if(workdir.exists()) {
-			// clear this directory
-			if(log.isTraceEnabled())
-				log.trace("{} cleaning work directory", this);
-			FileUtils.delete(workdir);
-		}
 		if(!workdir.exists())
 			workdir.mkdirs();
 		config.setWorkDirectory(workdir);
 		
+		//
+		// Cache Directory, holding the optimized classes by the hash of their contents. Configurable relatively 
+		// to Basedir, so it may be shared by the servers running the same application.
+		//
+		File cachedir = null;
+		String configCache = config.getString(ApplicationConfig.CACHEDIR_KEY);
+		if(configCache != null) {
+			cachedir = Paths.get(base.getAbsolutePath(), configCache).toFile();
+		}
+		if(cachedir == null) {
+			cachedir = new File(base, "cache");
+		}
+		if(!cachedir.exists())
+			cachedir.mkdirs();
+		config.setCacheDirectory(cachedir);
+		
 		List<String> domains = new ArrayList<String>();
 		// auxiliary domain map string for removing duplicate entries
 		HashMap<String,String> map = new HashMap<String,String>();
@@ -197,6 +213,20 @@ public class Application {
 		String charset = config.getString(ApplicationConfig.CHARSET_KEY, System.getProperty("file.encoding"));
 		config.setCharset(charset);
 		
+		//
+		// compression configuration; settings not declared are taken from server.properties
+		//
+		if(config.containsKey(ApplicationConfig.COMPRESSION_KEY))
+			config.setCompression(config.getBoolean(ApplicationConfig.COMPRESSION_KEY, true));
+		if(config.containsKey(ApplicationConfig.COMPRESSION_LEVEL_KEY))
+			config.setCompressionLevel(config.getInt(ApplicationConfig.COMPRESSION_LEVEL_KEY, 6));
+		if(config.containsKey(ApplicationConfig.COMPRESSION_MIN_SIZE_KEY))
+			config.setCompressionMinSize(config.getInt(ApplicationConfig.COMPRESSION_MIN_SIZE_KEY, 1024));
+		if(config.containsKey(ApplicationConfig.COMPRESSION_EXCLUDED_TYPES_KEY)) {
+			String types = config.getString(ApplicationConfig.COMPRESSION_EXCLUDED_TYPES_KEY);
+			config.setCompressionExcludedTypes(types.trim().toLowerCase().split("\\s*,\\s*"));
+		}
+		
 		//
 		// Session configuration
 		//
@@ -24,8 +24,13 @@ import java.util.List;
  * This takes a fair bit of doing because java really prefers parent-first.
  * 
  * For those not familiar with class loading trickery, be wary
+ * 
+ * Classes may be loaded concurrently: each class name is locked while it is looked up and defined.
  */
 public class ApplicationClassLoader extends URLClassLoader  {
+    static {
+        ClassLoader.registerAsParallelCapable();
+    }
     private ChildURLClassLoader childClassLoader;
 
     /**
@@ -47,6 +52,9 @@ public class ApplicationClassLoader extends URLClassLoader  {
      * We need this because findClass is protected in URLClassLoader
      */
     private static class ChildURLClassLoader extends URLClassLoader {
+        static {
+            ClassLoader.registerAsParallelCapable();
+        }
         private FindClassClassLoader parent;
 
         public ChildURLClassLoader(URL[] urls, FindClassClassLoader parent) {
@@ -57,11 +65,13 @@ public class ApplicationClassLoader extends URLClassLoader  {
         @Override
         public Class<?> findClass(String name) throws ClassNotFoundException {
             try {
-                // first try to use the URLClassLoader findClass
-            	Class<?> c = super.findLoadedClass(name);
-            	if(c != null)
-            		return c;
-                return super.findClass(name);
+                // first try to use the URLClassLoader findClass; the same class is defined only once
+                synchronized(getClassLoadingLock(name)) {
+                    Class<?> c = super.findLoadedClass(name);
+                    if(c != null)
+                        return c;
+                    return super.findClass(name);
+                }
             }
             catch( ClassNotFoundException e ) {
                 // if that fails, we ask our real parent classloader to load the class (we give up)
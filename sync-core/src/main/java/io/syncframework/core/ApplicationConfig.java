@@ -25,10 +25,15 @@ import java.util.Locale;
  */
 public class ApplicationConfig extends Config {
 	private static final long serialVersionUID = -4106496145463699646L;
+	public static final String CACHEDIR_KEY = "application.cache";
 	public static final String CLASSESDIR_KEY = "application.classes";
 	public static final String CONFIG_FILENAME = "application.properties";
 	public static final String CONFIG_DEV_FILENAME = "application-dev.properties";
 	public static final String CHARSET_KEY = "application.charset";
+	public static final String COMPRESSION_KEY = "application.compression";
+	public static final String COMPRESSION_LEVEL_KEY = "application.compression.level";
+	public static final String COMPRESSION_MIN_SIZE_KEY = "application.compression.min.size";
+	public static final String COMPRESSION_EXCLUDED_TYPES_KEY = "application.compression.excluded.types";
 	public static final String DOMAINS_KEY = "application.domains";
 	public static final String LIBDIR_KEY = "application.lib";
 	public static final String LOCALE_KEY = "application.locale";
@@ -40,11 +45,17 @@ public class ApplicationConfig extends Config {
 	public static final String TEMPLATE_VERSION = "application.template.version";
 	
 	private File baseDirectory;
+	private File cacheDirectory;
 	private File classesDirectory;
 	private File libDirectory;
 	private File privateDirectory;
 	private File publicDirectory;
 	private String charset;
+	// compression settings; null when not declared, so server.properties settings apply
+	private Boolean compression;
+	private Integer compressionLevel;
+	private Integer compressionMinSize;
+	private String compressionExcludedTypes[];
 	private Locale locale;
 	private long sessionExpire;
 	private String sessionFactory;
@@ -103,6 +114,38 @@ public class ApplicationConfig extends Config {
 		this.charset = charset;
 	}
 
+	public Boolean getCompression() {
+		return compression;
+	}
+
+	public void setCompression(Boolean compression) {
+		this.compression = compression;
+	}
+
+	public Integer getCompressionLevel() {
+		return compressionLevel;
+	}
+
+	public void setCompressionLevel(Integer compressionLevel) {
+		this.compressionLevel = compressionLevel;
+	}
+
+	public Integer getCompressionMinSize() {
+		return compressionMinSize;
+	}
+
+	public void setCompressionMinSize(Integer compressionMinSize) {
+		this.compressionMinSize = compressionMinSize;
+	}
+
+	public String[] getCompressionExcludedTypes() {
+		return compressionExcludedTypes;
+	}
+
+	public void setCompressionExcludedTypes(String[] compressionExcludedTypes) {
+		this.compressionExcludedTypes = compressionExcludedTypes;
+	}
+
 	public Locale getLocale() {
 		return locale;
 	}
@@ -167,6 +210,14 @@ public class ApplicationConfig extends Config {
 		this.tmpDirectory = tmpDirectory;
 	}
 
+	public File getCacheDirectory() {
+		return cacheDirectory;
+	}
+
+	public void setCacheDirectory(File cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+
 	public File getWorkDirectory() {
 		return workDirectory;
 	}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2016 SyncObjects Ltda.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syncframework.core;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.syncframework.api.Converter;
+import io.syncframework.api.FileUpload;
+import io.syncframework.optimizer.OController;
+import io.syncframework.optimizer.OInterceptor;
+
+/**
+ * Binding of the request parameters to the \@Parameters of a \@Controller or \@Interceptor, computed once when
+ * the class is registered.
+ *
+ * The \@Parameters are kept by their ids along with the \@Converters handling them, so binding a request walks
+ * the declared \@Parameters only; request parameters not declared are never looked up.
+ *
+ * The \@Converters registered by the application are shared by all the requests. Any other \@Converter declared
+ * by a \@Parameter may keep state, as a SimpleDateFormat, so a new instance handles each request.
+ *
+ * @author dfroz
+ */
+class BindingPlan {
+	private static final Logger log = LoggerFactory.getLogger(BindingPlan.class);
+	private final Application application;
+	private final String owner;
+	// indexed by the ids of the @Parameters
+	private final String names[];
+	private final Class<?> types[];
+	private final Converter<?> converters[];
+	// @Converters declared by the @Parameters and not known to be thread safe, created on each use
+	private final Class<?> converterClazzes[];
+
+	private BindingPlan(Application application, String owner, int size) {
+		this.application = application;
+		this.owner = owner;
+		this.names = new String[size];
+		this.types = new Class<?>[size];
+		this.converters = new Converter<?>[size];
+		this.converterClazzes = new Class<?>[size];
+	}
+
+	static BindingPlan of(Application application, OController controller) {
+		Map<String,Class<?>> parameters = controller._asParameters();
+		BindingPlan plan = new BindingPlan(application, controller.getClass().getName(), parameters.size());
+		for(Map.Entry<String,Class<?>> entry: parameters.entrySet()) {
+			String name = entry.getKey();
+			plan.declare(controller._asParameterId(name), name, entry.getValue(), controller._asParameterConverter(name));
+		}
+		return plan;
+	}
+
+	static BindingPlan of(Application application, OInterceptor interceptor) {
+		Map<String,Class<?>> parameters = interceptor._asParameters();
+		BindingPlan plan = new BindingPlan(application, interceptor.getClass().getName(), parameters.size());
+		for(Map.Entry<String,Class<?>> entry: parameters.entrySet()) {
+			String name = entry.getKey();
+			plan.declare(interceptor._asParameterId(name), name, entry.getValue(), interceptor._asParameterConverter(name));
+		}
+		return plan;
+	}
+
+	private void declare(int id, String name, Class<?> type, Class<?> converterClazz) {
+		if(id < 0 || id >= names.length || names[id] != null)
+			throw new RuntimeException(owner+" cannot be registered: @Parameter "+name+" id mismatch");
+		names[id] = name;
+		types[id] = type;
+		// @Converter declared by the @Parameter or, if none, the one registered for its type
+		if(converterClazz != null) {
+			Converter<?> converter;
+			try { converter = (Converter<?>)converterClazz.getDeclaredConstructor().newInstance(); }
+			catch(Exception e) {
+				throw new RuntimeException(owner+" cannot be registered: failed to create @Converter "+
+						converterClazz.getName()+" of @Parameter "+name, e);
+			}
+			// registered @Converters are shared by all the requests already; any other may keep state
+			if(isRegistered(converterClazz)) {
+				converters[id] = converter;
+			}
+			else {
+				converterClazzes[id] = converterClazz;
+				if(log.isDebugEnabled())
+					log.debug("{}: @Converter {} of @Parameter {} created on each use", owner, converterClazz.getName(), name);
+			}
+		}
+		else if(type != FileUpload.class) {
+			converters[id] = application.getConverterFactory().getConverter(type);
+		}
+	}
+
+	private boolean isRegistered(Class<?> converterClazz) {
+		for(Converter<?> converter: application.getConverterFactory().getConverters().values()) {
+			if(converter.getClass() == converterClazz)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return number of \@Parameters; their ids range from 0 to size - 1
+	 */
+	int size() {
+		return names.length;
+	}
+
+	String getName(int id) {
+		return names[id];
+	}
+
+	boolean isFile(int id) {
+		return types[id] == FileUpload.class;
+	}
+
+	/**
+	 * @return type of the \@Parameter; int, long, double and boolean \@Parameters are set without boxing
+	 */
+	Class<?> getType(int id) {
+		return types[id];
+	}
+
+	/**
+	 * @return \@Converter of the \@Parameter
+	 * @throws RuntimeException if no \@Converter handles the type of the \@Parameter
+	 */
+	Converter<?> getConverter(int id) {
+		Converter<?> converter = converters[id];
+		if(converter != null)
+			return converter;
+		if(converterClazzes[id] != null) {
+			try { return (Converter<?>)converterClazzes[id].getDeclaredConstructor().newInstance(); }
+			catch(Exception e) {
+				throw new RuntimeException(application+" failed to create @Converter "+converterClazzes[id].getName()+
+						" of @Parameter "+owner+"."+names[id], e);
+			}
+		}
+		// @Converters registered after the class
+		converter = application.getConverterFactory().getConverter(types[id]);
+		if(converter == null) {
+			log.error("{}: @Converter not found to handle type: {}", application, types[id].getName());
+			StringBuilder sb = new StringBuilder();
+			sb.append(application).append(" failed to locate @Converter to deal with @Parameter ").append(owner).append(".").append(names[id]);
+			String errmsg = sb.toString();
+			log.error(errmsg);
+			throw new RuntimeException(errmsg);
+		}
+		converters[id] = converter;
+		return converter;
+	}
+
+	@Override
+	public String toString() {
+		return owner;
+	}
+}
@@ -16,6 +16,7 @@
 package io.syncframework.core;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.slf4j.Logger;
@@ -31,6 +32,10 @@ import io.syncframework.api.RequestContext;
 import io.syncframework.api.Result;
 import io.syncframework.api.SessionContext;
 import io.syncframework.api.SessionManager;
+import io.syncframework.converter.BooleanValueConverter;
+import io.syncframework.converter.DoubleValueConverter;
+import io.syncframework.converter.IntValueConverter;
+import io.syncframework.converter.LongValueConverter;
 import io.syncframework.i18n.MessageContextImpl;
 import io.syncframework.optimizer.OController;
 
@@ -42,14 +47,25 @@ import io.syncframework.optimizer.OController;
 public class ControllerBean implements ResponseBean {
 	private static Logger log = LoggerFactory.getLogger(ControllerBean.class);
 	private String action;
+	// id of the action resolved by the router; -1 when the action is executed by its name
+	private int actionId = -1;
 	private Application application;
 	private String contentType;
 	private OController controller;
+	private ControllerFactory.Provider provider;
+	private BindingPlan plan;
+	// @Interceptors of the @Action, as resolved by the router, and their executions by this request
+	private InterceptorFactory.Provider interceptors[];
+	private InterceptorBean interceptorBeans[];
 	private CookieContext cookieContext;
 	private ErrorContext errorContext;
 	private MessageContext messageContext;
 	private RequestContext requestContext;
 	private SessionContext sessionContext;
+	// path variables: names, and start and end offsets of their values into the url
+	private String url;
+	private String pathVariables[];
+	private int pathOffsets[];
 
 	public ControllerBean() {
 		super();
@@ -100,71 +116,72 @@ public class ControllerBean implements ResponseBean {
 		 *  INVOKE SETTERS
 		 */
 
-		Set<String> keys = request.getParameters().keySet();
-		if(keys != null) {
-			for(String name: keys) {
-				List<String> values = request.getParameters().get(name);
-				if(values.size() == 0)
-					continue;
-
-				if(log.isTraceEnabled())
-					log.trace("binding ... @Parameter "+this+"."+name);
-
-				Class<?> type = controller._asParameters().get(name);
-				if(type == null) {
-					if(log.isDebugEnabled()) {
-						log.debug("@Parameter "+name+" not declared by @Controller "+this+
-								"; requested url: "+request.getUri()+"");
-					}
+		if(plan == null)
+			plan = BindingPlan.of(application, controller);
+		if(log.isDebugEnabled())
+			undeclared(request);
+
+		Map<String,List<String>> parameters = request.getParameters();
+		Map<String,FileUpload> files = request.getFiles();
+		ConversionCache cache = request.getConversionCache();
+		for(int id = 0; id < plan.size(); id++) {
+			String name = plan.getName(id);
+			if(plan.isFile(id)) {
+				FileUpload file = files.get(name);
+				if(file == null)
 					continue;
-				}
-				
-				// check for defined converter
-				Converter<?> converter = application.getConverterFactory().getConverter(type);
-				Class<?> converterClazz = controller._asParameterConverter(name);
-				if(converterClazz != null) {
-					try { converter = (Converter<?>)converterClazz.getDeclaredConstructor().newInstance(); }
-					catch(Exception e) {
-						throw new ControllerBeanException(e, this);
-					}
-				}
-				if(converter == null) {
-					log.error("{}: @Converter not found to handle type: {}", application, type.getName());
-					StringBuilder sb = new StringBuilder();
-					sb.append(application).append(" failed to locate @Converter to deal with @Parameter ").append(this).append(".").append(name);
-					String errmsg = sb.toString();
-					log.error(errmsg);
-					throw new RuntimeException(errmsg);
-				}
 				try {
-					Object value = converter.convert(values.toArray(new String[0]));
-					controller._asParameter(name, value);
+					controller._asParameter(id, file);
 				}
 				catch(Exception e) {
 					throw new ControllerBeanException(e, this);
 				}
+				continue;
+			}
+			List<String> values = parameters.get(name);
+			if(values == null || values.size() == 0)
+				continue;
+
+			if(log.isTraceEnabled())
+				log.trace("binding ... @Parameter "+this+"."+name);
+
+			Converter<?> converter = plan.getConverter(id);
+			try {
+				if(bindPrimitive(id, converter, values.get(0)))
+					continue;
+				// converted once per request, by the first binder of the parameter
+				Object value = cache.get(name, converter);
+				if(value == null && !cache.contains(name, converter)) {
+					value = converter.convert(values.toArray(new String[values.size()]));
+					cache.put(name, converter, value);
+				}
+				controller._asParameter(id, value);
+			}
+			catch(Exception e) {
+				throw new ControllerBeanException(e, this);
 			}
 		}
-		keys = request.getFiles().keySet();
-		if(keys != null) {
-			for(String name: keys) {
-				FileUpload file = request.getFiles().get(name);
-				Class<?> type = controller._asParameters().get(name);
-				if(type == null) {
+		if(pathVariables != null) {
+			// path variables prevail over request parameters of the same name
+			for(int i=0; i < pathVariables.length; i++) {
+				String name = pathVariables[i];
+				if(log.isTraceEnabled())
+					log.trace("binding ... path variable @Parameter "+this+"."+name);
+
+				int id = controller._asParameterId(name);
+				if(id < 0) {
 					if(log.isDebugEnabled()) {
 						log.debug("@Parameter "+name+" not declared by @Controller "+this+
-								"; requested url: "+request.getUri());
+								"; requested url: "+request.getUri()+"");
 					}
 					continue;
 				}
-				if(type != FileUpload.class) {
-					if(log.isDebugEnabled())
-						log.debug("@Parameter "+name+" not declared as FileUpload at @Controller "+this+
-								"; requested url: "+request.getUri());
-					continue;
-				}
+				Converter<?> converter = plan.getConverter(id);
 				try {
-					controller._asParameter(name, file);
+					String s = url.substring(pathOffsets[i*2], pathOffsets[i*2+1]);
+					if(bindPrimitive(id, converter, s))
+						continue;
+					controller._asParameter(id, converter.convert(new String[] { s }));
 				}
 				catch(Exception e) {
 					throw new ControllerBeanException(e, this);
@@ -177,7 +194,7 @@ public class ControllerBean implements ResponseBean {
 
 		Result result = null;
 		
-		try { result = controller._asAction(action); }
+		try { result = actionId >= 0 ? controller._asAction(actionId) : controller._asAction(action); }
 		catch(Exception e) { throw new ControllerBeanException(e, this); }
 
 		if(log.isTraceEnabled())
@@ -186,12 +203,91 @@ public class ControllerBean implements ResponseBean {
 		return result;
 	}
 	
+	/**
+	 * Sets the int, long, double or boolean \@Parameter parsing the value straight to the primitive type.
+	 * @return false if the \@Parameter shall be bound through Converter.convert(): other types, empty values
+	 * or custom \@Converters
+	 */
+	private boolean bindPrimitive(int id, Converter<?> converter, String value) {
+		Class<?> type = plan.getType(id);
+		if(!type.isPrimitive() || value == null || value.isEmpty())
+			return false;
+		if(type == int.class && converter instanceof IntValueConverter)
+			controller._asParameterInt(id, ((IntValueConverter)converter).convertInt(value));
+		else if(type == long.class && converter instanceof LongValueConverter)
+			controller._asParameterLong(id, ((LongValueConverter)converter).convertLong(value));
+		else if(type == double.class && converter instanceof DoubleValueConverter)
+			controller._asParameterDouble(id, ((DoubleValueConverter)converter).convertDouble(value));
+		else if(type == boolean.class && converter instanceof BooleanValueConverter)
+			controller._asParameterBoolean(id, ((BooleanValueConverter)converter).convertBoolean(value));
+		else
+			return false;
+		return true;
+	}
+
+	/**
+	 * Reports the request parameters and files not declared as \@Parameters
+	 */
+	private void undeclared(Request request) {
+		for(String name: request.getParameters().keySet()) {
+			if(controller._asParameterId(name) < 0)
+				log.debug("@Parameter "+name+" not declared by @Controller "+this+"; requested url: "+request.getUri());
+		}
+		for(String name: request.getFiles().keySet()) {
+			int id = controller._asParameterId(name);
+			if(id < 0 || !plan.isFile(id))
+				log.debug("@Parameter "+name+" not declared as FileUpload at @Controller "+this+"; requested url: "+request.getUri());
+		}
+	}
+	
 	public Class<?>[] interceptedBy() {
 		if(action == null)
 			return null;
 		return controller._asActionInterceptors(action);
 	}
 	
+	/**
+	 * @return executions of the \@Interceptors of the \@Action by this request, in the order they are executed; null
+	 * if not intercepted
+	 */
+	public InterceptorBean[] interceptors() {
+		if(interceptorBeans != null)
+			return interceptorBeans;
+		// resolved by the router when the @Controller was found; otherwise looked up
+		InterceptorFactory.Provider providers[] = interceptors;
+		if(providers == null)
+			providers = application.getInterceptorFactory().find(interceptedBy());
+		if(providers == null || providers.length == 0)
+			return null;
+		// instances owned by this request until released
+		InterceptorBean beans[] = new InterceptorBean[providers.length];
+		for(int i = 0; i < providers.length; i++)
+			beans[i] = new InterceptorBean(application, providers[i]);
+		interceptorBeans = beans;
+		return beans;
+	}
+	
+	/**
+	 * Hands the instances of the \@Interceptors executed by this request back to their pools
+	 */
+	void releaseInterceptors() {
+		InterceptorBean beans[] = interceptorBeans;
+		if(beans == null)
+			return;
+		interceptorBeans = null;
+		for(int i = 0; i < beans.length; i++)
+			beans[i].release();
+	}
+	
+	/**
+	 * @return false when the action was declared as \@Action(blocking=false) and may run on the I/O thread
+	 */
+	public boolean blocking() {
+		if(action == null)
+			return true;
+		return controller._asActionIsBlocking(action);
+	}
+	
 	public SessionManager session() {
 		return controller._asSession();
 	}
@@ -204,6 +300,17 @@ public class ControllerBean implements ResponseBean {
 
 	public void setAction(String action) {
 		this.action = action;
+		this.actionId = -1;
+		this.interceptors = null;
+	}
+
+	/**
+	 * @param actionId id of the action, as resolved by {@link OController#_asActionId(String)}
+	 */
+	public void setAction(String action, int actionId) {
+		this.action = action;
+		this.actionId = actionId;
+		this.interceptors = null;
 	}
 
 	public Application getApplication() {
@@ -222,12 +329,42 @@ public class ControllerBean implements ResponseBean {
 		this.contentType = contentType;
 	}
 
+	/**
+	 * Sets the path variables matched: their values are bound to the \@Parameters of the same name.
+	 * @param offsets start and end offsets into the url of the value of each variable
+	 */
+	public void setPathVariables(String url, String variables[], int offsets[]) {
+		this.url = url;
+		this.pathVariables = variables;
+		this.pathOffsets = offsets;
+	}
+
+	ControllerFactory.Provider getProvider() {
+		return provider;
+	}
+
+	void setProvider(ControllerFactory.Provider provider) {
+		this.provider = provider;
+	}
+
+	void setBindingPlan(BindingPlan plan) {
+		this.plan = plan;
+	}
+
+	/**
+	 * Sets the \@Interceptors of the \@Action resolved by the router; empty if not intercepted
+	 */
+	void setInterceptors(InterceptorFactory.Provider interceptors[]) {
+		this.interceptors = interceptors;
+	}
+
 	public OController getController() {
 		return controller;
 	}
 
 	public void setController(OController controller) {
 		this.controller = controller;
+		this.plan = null;
 	}
 	
 	@Override
@@ -15,16 +15,18 @@
  */
 package io.syncframework.core;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.syncframework.api.Action;
+import io.syncframework.api.Scope;
 import io.syncframework.optimizer.OController;
 
 /**
@@ -32,9 +34,9 @@ import io.syncframework.optimizer.OController;
  */
 public class ControllerFactory {
 	private static final Logger log = LoggerFactory.getLogger(ControllerFactory.class);
+	private static final InterceptorFactory.Provider NO_INTERCEPTORS[] = new InterceptorFactory.Provider[0];
 	private Application application;
-	private URLPattern urls[] = new URLPattern[0];
-	private Map<URLPattern, Class<?>> map = new ConcurrentHashMap<URLPattern, Class<?>>();
+	private URLRouter<Provider> router = new URLRouter<Provider>();
 
 	public ControllerFactory(Application application) {
 		this.application = application;
@@ -44,53 +46,60 @@ public class ControllerFactory {
 		if(log.isTraceEnabled())
 			log.trace("finding controller to handle request: "+url);
 		
-		String actionName = null;
-		
-		URLPattern urlPattern = null;
-		for(int i=0; i < urls.length; i++) {
-			actionName = urls[i].action(url);
-			if(actionName != null) {
-				urlPattern = urls[i];
-				break;
-			}
-		}
-		if(urlPattern == null) {
+		// offsets of the path variables matched, if any @Controller declares them
+		int offsets[] = router.getMaxVariables() > 0 ? new int[router.getMaxVariables() * 2] : null;
+		URLRouter.Match<Provider> match = router.match(url, offsets);
+		if(match == null) {
 			if(log.isDebugEnabled())
-				log.debug(urls.length+" @Controllers in the pool, none responsible for the url: "+url);
+				log.debug(router.size()+" @Controllers in the pool, none responsible for the url: "+url);
 			return false;
 		}
 		
-		Class<?> clazz = map.get(urlPattern);
-		OController controller = (OController)clazz.getDeclaredConstructor().newInstance();
-		
-		String action = null;
-		if(controller._asActionIsDefined(actionName))
-			action = actionName;
-		if(action == null && controller._asActionIsDefined("main"))
-			action = "main";
+		String action = match.getAction();
 		if(action == null) {
 			if(log.isDebugEnabled()) {
-				log.debug("no @Action found on @Controller "+controller.getClass().getName()+
+				log.debug("no @Action found on @Controller "+match.getTarget().prototype.getClass().getName()+
 					" to handle request: "+url);
 			}
 			return false;
 		}
 		
+		Provider provider = match.getTarget();
+		OController controller = provider.get();
+		
 		if(log.isTraceEnabled())
 			log.trace("found @Controller {} -> @Action {}()", controller.getClass().getName(), action);
 		
 		controllerBean.setApplication(application);
 		controllerBean.setController(controller);
-		controllerBean.setAction(action);
+		controllerBean.setProvider(provider);
+		controllerBean.setBindingPlan(provider.plan);
+		controllerBean.setAction(action, match.getActionId());
+		controllerBean.setInterceptors(provider.interceptors[match.getActionId()]);
+		if(match.getVariables().length > 0)
+			controllerBean.setPathVariables(url, match.getVariables(), offsets);
 		
 		return true;
 	}
 	
+	/**
+	 * Releases the controller and its interceptors once the request has been handled; pooled controllers are
+	 * reset and handed back to the pool.
+	 */
+	public void release(ControllerBean controllerBean) {
+		controllerBean.releaseInterceptors();
+		Provider provider = controllerBean.getProvider();
+		if(provider == null)
+			return;
+		controllerBean.setProvider(null);
+		provider.release(controllerBean.getController());
+	}
+	
 	/**
 	 * This method is responsible to register new controllers to the application.<br/>
 	 * <br/>
-	 * The controllers are sorted by URL length before to be included into the controllers[]. This allows quick search
-	 * for the more specific Controller to the generic Controller.<br/>
+	 * The URL pattern of the controller is compiled into the {@link URLRouter} along with its actions, so requests 
+	 * are matched to the more specific Controller walking the URL once.<br/>
 	 * <br/>
 	 * @param clazz
 	 */
@@ -108,40 +117,95 @@ public class ControllerFactory {
 		URLPattern pattern = new URLPattern();
 		pattern.compile(url);
 		
-		Class<?> c = map.get(pattern);
-		if(c != null) {
-			throw new RuntimeException("@Controller "+c.getName()+" already registered on URL pattern "+url+"; review @Controller "+clazz.getName());
+		// actions in the order of their ids, so the router resolves each action to the id executing it
+		final OController prototype = controller;
+		List<String> actions = new ArrayList<String>();
+		for(Method method: clazz.getDeclaredMethods()) {
+			if(method.isAnnotationPresent(Action.class) && controller._asActionIsDefined(method.getName()))
+				actions.add(method.getName());
 		}
-		
-		//
-		// Weight is based on the length of the pattern... A more specific @Controller may handle the request
-		//		
-		List<URLPattern> sorted = new LinkedList<URLPattern>();
-		if(urls.length > 0) {
-			for(URLPattern p: urls) {
-				sorted.add(p);
+		Collections.sort(actions, new Comparator<String>() {
+			@Override
+			public int compare(String a, String b) {
+				return prototype._asActionId(a) - prototype._asActionId(b);
 			}
+		});
+		for(int i = 0; i < actions.size(); i++) {
+			if(controller._asActionId(actions.get(i)) != i)
+				throw new RuntimeException("@Controller "+clazz.getName()+" cannot be registered: @Action "+actions.get(i)+" id mismatch");
 		}
-		sorted.add(pattern);
 		
-		Collections.sort(sorted, new Comparator<URLPattern>() {
-			public int compare(URLPattern p1, URLPattern p2) {
-				String url1 = p1.toString();
-				String url2 = p2.toString();
-				return url1.length() < url2.length() ? 1 : (url1.length() == url2.length() ? 0 : -1);
-			}
-		});
-
-		urls = new URLPattern[sorted.size()];
-		for(int i=0; i < sorted.size(); i++) {
-			urls[i] = sorted.get(i);
-			c = map.get(urls[i]);
-			if(c != null)
-				map.put(urls[i], c);
+		// @Interceptors of each @Action, resolved once; the @Interceptors are registered before the @Controllers
+		InterceptorFactory.Provider interceptors[][] = new InterceptorFactory.Provider[actions.size()][];
+		for(int i = 0; i < actions.size(); i++) {
+			interceptors[i] = application.getInterceptorFactory().find(controller._asActionInterceptors(actions.get(i)));
+			if(interceptors[i] == null)
+				interceptors[i] = NO_INTERCEPTORS;
+		}
+		
+		try {
+			router.add(pattern, new Provider(controller, BindingPlan.of(application, controller), interceptors), actions);
+		}
+		catch(URLPatternException e) {
+			throw new RuntimeException("@Controller "+clazz.getName()+" cannot be registered: "+e.getMessage());
 		}
-		map.put(pattern, clazz);
 		
 		if(log.isTraceEnabled())
-			log.trace("@Controller {} registered", clazz.getName());
+			log.trace("@Controller {} registered; scope {}", clazz.getName(), controller._asScope());
+	}
+
+	/**
+	 * Provides the instances of a \@Controller according to its scope: a new instance for each request, an
+	 * instance taken from a striped pool, or the same instance for all requests. Holds the binding of the
+	 * request parameters and the \@Interceptors of each \@Action, shared by all instances.
+	 */
+	static class Provider {
+		private static final int STRIPES;
+		static {
+			int stripes = 1;
+			while(stripes < Runtime.getRuntime().availableProcessors() * 2)
+				stripes <<= 1;
+			STRIPES = stripes;
+		}
+		private final OController prototype;
+		private final Scope scope;
+		private final AtomicReferenceArray<OController> pool;
+		private final BindingPlan plan;
+		// indexed by the ids of the @Actions; empty if the @Action is not intercepted
+		private final InterceptorFactory.Provider interceptors[][];
+
+		private Provider(OController prototype, BindingPlan plan, InterceptorFactory.Provider interceptors[][]) {
+			this.prototype = prototype;
+			this.plan = plan;
+			this.interceptors = interceptors;
+			this.scope = prototype._asScope();
+			this.pool = scope == Scope.POOLED ? new AtomicReferenceArray<OController>(STRIPES) : null;
+		}
+
+		private OController get() {
+			switch(scope) {
+			case SINGLETON:
+				return prototype;
+			case POOLED:
+				OController controller = pool.getAndSet(stripe(), null);
+				if(controller != null)
+					return controller;
+				return prototype._asNewInstance();
+			default:
+				return prototype._asNewInstance();
+			}
+		}
+
+		private void release(OController controller) {
+			if(scope != Scope.POOLED)
+				return;
+			controller._asReset();
+			// discarded if another instance took the place meanwhile
+			pool.compareAndSet(stripe(), null, controller);
+		}
+
+		private static int stripe() {
+			return (int)Thread.currentThread().getId() & (STRIPES - 1);
+		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016 SyncObjects Ltda.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syncframework.core;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.syncframework.api.Converter;
+
+/**
+ * Request parameters converted while binding the \@Interceptors and the \@Controller of a request, kept by the
+ * parameter name and the class of the \@Converter.
+ *
+ * Each binder of the request looks up the values already converted, so a parameter bound by several
+ * \@Interceptors and by the \@Controller is converted once. The same converted object is therefore handed to
+ * all of them.
+ *
+ * @author dfroz
+ */
+public class ConversionCache implements Recyclable {
+	// values of the same parameter converted by different @Converters are chained
+	private final Map<String,Entry> entries = new HashMap<String,Entry>();
+
+	/**
+	 * @return true if the parameter has been converted by the \@Converter; its value may be null
+	 */
+	public boolean contains(String name, Converter<?> converter) {
+		return find(name, converter) != null;
+	}
+
+	/**
+	 * @return value of the parameter converted by the \@Converter; null if not converted
+	 */
+	public Object get(String name, Converter<?> converter) {
+		Entry entry = find(name, converter);
+		return entry != null ? entry.value : null;
+	}
+
+	public void put(String name, Converter<?> converter, Object value) {
+		Entry entry = find(name, converter);
+		if(entry != null) {
+			entry.value = value;
+			return;
+		}
+		entries.put(name, new Entry(converter.getClass(), value, entries.get(name)));
+	}
+
+	private Entry find(String name, Converter<?> converter) {
+		if(entries.isEmpty())
+			return null;
+		Class<?> clazz = converter.getClass();
+		for(Entry entry = entries.get(name); entry != null; entry = entry.next) {
+			if(entry.converter == clazz)
+				return entry;
+		}
+		return null;
+	}
+
+	@Override
+	public void recycle() {
+		entries.clear();
+	}
+
+	private static class Entry {
+		private final Class<?> converter;
+		private Object value;
+		private final Entry next;
+
+		private Entry(Class<?> converter, Object value, Entry next) {
+			this.converter = converter;
+			this.value = value;
+			this.next = next;
+		}
+	}
+}
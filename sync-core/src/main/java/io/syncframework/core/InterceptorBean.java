@@ -16,6 +16,7 @@
 package io.syncframework.core;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.slf4j.Logger;
@@ -30,10 +31,16 @@ import io.syncframework.api.MessageContext;
 import io.syncframework.api.RequestContext;
 import io.syncframework.api.Result;
 import io.syncframework.api.SessionContext;
+import io.syncframework.converter.BooleanValueConverter;
+import io.syncframework.converter.DoubleValueConverter;
+import io.syncframework.converter.IntValueConverter;
+import io.syncframework.converter.LongValueConverter;
 import io.syncframework.i18n.MessageContextImpl;
 import io.syncframework.optimizer.OInterceptor;
 
 /**
+ * Represents the execution of an \@Interceptor by a request: before() and after() of the same request run on
+ * the same instance of the \@Interceptor, which is handed back by release().
  * 
  * @author dfroz
  *
@@ -43,6 +50,8 @@ public class InterceptorBean implements ResponseBean {
 	private Application application;
 	private String contentType;
 	private OInterceptor interceptor;
+	private InterceptorFactory.Provider provider;
+	private BindingPlan plan;
 	private CookieContext cookieContext;
 	private ErrorContext errorContext;
 	private MessageContext messageContext;
@@ -56,6 +65,25 @@ public class InterceptorBean implements ResponseBean {
 	public InterceptorBean(Application application, OInterceptor interceptor) {
 		this.application = application;
 		this.interceptor = interceptor;
+		this.plan = BindingPlan.of(application, interceptor);
+	}
+
+	InterceptorBean(Application application, InterceptorFactory.Provider provider) {
+		this.application = application;
+		this.provider = provider;
+		this.interceptor = provider.get();
+		this.plan = provider.getBindingPlan();
+	}
+
+	/**
+	 * Hands the instance of the \@Interceptor back to its pool once the request has been handled
+	 */
+	public void release() {
+		if(provider == null)
+			return;
+		InterceptorFactory.Provider provider = this.provider;
+		this.provider = null;
+		provider.release(interceptor);
 	}
 
 	public Result after(Request request, Response response) {
@@ -85,78 +113,7 @@ public class InterceptorBean implements ResponseBean {
 		/*
 		 *  INVOKE SETTERS
 		 */
-		Set<String> keys = request.getParameters().keySet();
-		if(keys != null) {
-			for(String name: keys) {
-				List<String> values = request.getParameters().get(name);
-				if(values.size() == 0) {
-					continue;
-				}
-
-				if(log.isTraceEnabled())
-					log.trace("binding ... @Parameter "+this+"."+name);
-
-				Class<?> type = interceptor._asParameters().get(name);
-				if(type == null) {
-					if(log.isDebugEnabled()) {
-						log.debug("@Parameter "+name+" not declared by @Controller "+this+
-								"; requested url: "+request.getUri()+"");
-					}
-					continue;
-				}
-				
-				// check for defined converter
-				Converter<?> converter = application.getConverterFactory().getConverter(type);
-				Class<?> converterClazz = interceptor._asParameterConverter(name);
-				if(converterClazz != null) {
-					try { converter = (Converter<?>)converterClazz.getDeclaredConstructor().newInstance(); }
-					catch(Exception e) {
-						throw new InterceptorBeanException(e, this);
-					}
-				}
-				if(converter == null) {
-					log.error("{}: @Converter not found to handle type: {}", application, type.getName());
-					StringBuilder sb = new StringBuilder();
-					sb.append(application).append(" failed to locate @Converter to deal with @Parameter ").append(this).append(".").append(name);
-					String errmsg = sb.toString();
-					log.error(errmsg);
-					throw new RuntimeException(errmsg);
-				}
-				try {
-					Object value = converter.convert(values.toArray(new String[0]));
-					interceptor._asParameter(name, value);
-				}
-				catch(Exception e) {
-					throw new InterceptorBeanException(e, this);
-				}
-			}
-		}
-		keys = request.getFiles().keySet();
-		if(keys != null) {
-			for(String name: keys) {
-				FileUpload file = request.getFiles().get(name);
-				Class<?> type = interceptor._asParameters().get(name);
-				if(type == null) {
-					if(log.isDebugEnabled()) {
-						log.debug("@Parameter "+name+" not declared by @Controller "+this+
-								"; requested url: "+request.getUri());
-					}
-					continue;
-				}
-				if(type != FileUpload.class) {
-					if(log.isDebugEnabled())
-						log.debug("@Parameter "+name+" not declared as FileUpload at @Controller "+this+
-								"; requested url: "+request.getUri());
-					continue;
-				}
-				try {
-					interceptor._asParameter(name, file);
-				}
-				catch(Exception e) {
-					throw new InterceptorBeanException(e, this);
-				}
-			}
-		}
+		bind(request);
 
 		if(log.isTraceEnabled())
 			log.trace("invoking @Action {}.after()", interceptor.getClass().getName());
@@ -199,91 +156,108 @@ public class InterceptorBean implements ResponseBean {
 		/*
 		 *  INVOKE SETTERS
 		 */
-		Set<String> keys = request.getParameters().keySet();
-		if(keys != null) {
-			for(String name: keys) {
-				List<String> values = request.getParameters().get(name);
-				if(values.size() == 0) {
-					continue;
-				}
+		bind(request);
 
-				if(log.isTraceEnabled())
-					log.trace("binding ... @Parameter "+this+"."+name);
+		if(log.isTraceEnabled())
+			log.trace("invoking @Action {}.before()", interceptor.getClass().getName());
 
-				Class<?> type = interceptor._asParameters().get(name);
-				if(type == null) {
-					if(log.isDebugEnabled()) {
-						log.debug("@Parameter "+name+" not declared by @Controller "+this+
-								"; requested url: "+request.getUri()+"");
-					}
+		Result result = null;
+		
+		try { result = interceptor._asBefore(); }
+		catch(Exception e) { throw new InterceptorBeanException(e, this); }
+
+		if(log.isTraceEnabled())
+			log.trace("@Interceptor {}.before() resulted in {}", this, result);
+
+		return result;
+	}
+
+	/**
+	 * Binds the request parameters and files to the \@Parameters declared by the \@Interceptor
+	 */
+	private void bind(Request request) {
+		if(plan == null)
+			plan = BindingPlan.of(application, interceptor);
+		if(log.isDebugEnabled())
+			undeclared(request);
+
+		Map<String,List<String>> parameters = request.getParameters();
+		Map<String,FileUpload> files = request.getFiles();
+		ConversionCache cache = request.getConversionCache();
+		for(int id = 0; id < plan.size(); id++) {
+			String name = plan.getName(id);
+			if(plan.isFile(id)) {
+				FileUpload file = files.get(name);
+				if(file == null)
 					continue;
-				}
-				
-				// check for defined converter
-				Converter<?> converter = application.getConverterFactory().getConverter(type);
-				Class<?> converterClazz = interceptor._asParameterConverter(name);
-				if(converterClazz != null) {
-					try { converter = (Converter<?>)converterClazz.getDeclaredConstructor().newInstance(); }
-					catch(Exception e) {
-						throw new InterceptorBeanException(e, this);
-					}
-				}
-				if(converter == null) {
-					log.error("{}: @Converter not found to handle type: {}", application, type.getName());
-					StringBuilder sb = new StringBuilder();
-					sb.append(application).append(" failed to locate @Converter to deal with @Parameter ").append(this).append(".").append(name);
-					String errmsg = sb.toString();
-					log.error(errmsg);
-					throw new RuntimeException(errmsg);
-				}
 				try {
-					Object value = converter.convert(values.toArray(new String[0]));
-					interceptor._asParameter(name, value);
+					interceptor._asParameter(id, file);
 				}
 				catch(Exception e) {
 					throw new InterceptorBeanException(e, this);
 				}
+				continue;
 			}
-		}
-		keys = request.getFiles().keySet();
-		if(keys != null) {
-			for(String name: keys) {
-				FileUpload file = request.getFiles().get(name);
-				Class<?> type = interceptor._asParameters().get(name);
-				if(type == null) {
-					if(log.isDebugEnabled()) {
-						log.debug("@Parameter "+name+" not declared by @Controller "+this+
-								"; requested url: "+request.getUri());
-					}
-					continue;
-				}
-				if(type != FileUpload.class) {
-					if(log.isDebugEnabled())
-						log.debug("@Parameter "+name+" not declared as FileUpload at @Controller "+this+
-								"; requested url: "+request.getUri());
+			List<String> values = parameters.get(name);
+			if(values == null || values.size() == 0)
+				continue;
+
+			if(log.isTraceEnabled())
+				log.trace("binding ... @Parameter "+this+"."+name);
+
+			Converter<?> converter = plan.getConverter(id);
+			try {
+				if(bindPrimitive(id, converter, values.get(0)))
 					continue;
+				// converted once per request, by the first binder of the parameter
+				Object value = cache.get(name, converter);
+				if(value == null && !cache.contains(name, converter)) {
+					value = converter.convert(values.toArray(new String[values.size()]));
+					cache.put(name, converter, value);
 				}
-				try {
-					interceptor._asParameter(name, file);
-				}
-				catch(Exception e) {
-					throw new InterceptorBeanException(e, this);
-				}
+				interceptor._asParameter(id, value);
+			}
+			catch(Exception e) {
+				throw new InterceptorBeanException(e, this);
 			}
 		}
+	}
 
-		if(log.isTraceEnabled())
-			log.trace("invoking @Action {}.before()", interceptor.getClass().getName());
-
-		Result result = null;
-		
-		try { result = interceptor._asBefore(); }
-		catch(Exception e) { throw new InterceptorBeanException(e, this); }
-
-		if(log.isTraceEnabled())
-			log.trace("@Interceptor {}.before() resulted in {}", this, result);
+	/**
+	 * Sets the int, long, double or boolean \@Parameter parsing the value straight to the primitive type.
+	 * @return false if the \@Parameter shall be bound through Converter.convert(): other types, empty values
+	 * or custom \@Converters
+	 */
+	private boolean bindPrimitive(int id, Converter<?> converter, String value) {
+		Class<?> type = plan.getType(id);
+		if(!type.isPrimitive() || value == null || value.isEmpty())
+			return false;
+		if(type == int.class && converter instanceof IntValueConverter)
+			interceptor._asParameterInt(id, ((IntValueConverter)converter).convertInt(value));
+		else if(type == long.class && converter instanceof LongValueConverter)
+			interceptor._asParameterLong(id, ((LongValueConverter)converter).convertLong(value));
+		else if(type == double.class && converter instanceof DoubleValueConverter)
+			interceptor._asParameterDouble(id, ((DoubleValueConverter)converter).convertDouble(value));
+		else if(type == boolean.class && converter instanceof BooleanValueConverter)
+			interceptor._asParameterBoolean(id, ((BooleanValueConverter)converter).convertBoolean(value));
+		else
+			return false;
+		return true;
+	}
 
-		return result;
+	/**
+	 * Reports the request parameters and files not declared as \@Parameters
+	 */
+	private void undeclared(Request request) {
+		for(String name: request.getParameters().keySet()) {
+			if(interceptor._asParameterId(name) < 0)
+				log.debug("@Parameter "+name+" not declared by @Interceptor "+this+"; requested url: "+request.getUri());
+		}
+		for(String name: request.getFiles().keySet()) {
+			int id = interceptor._asParameterId(name);
+			if(id < 0 || !plan.isFile(id))
+				log.debug("@Parameter "+name+" not declared as FileUpload at @Interceptor "+this+"; requested url: "+request.getUri());
+		}
 	}
 
 	public OInterceptor getInterceptor() {
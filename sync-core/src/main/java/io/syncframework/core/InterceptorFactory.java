@@ -17,45 +17,58 @@ package io.syncframework.core;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import io.syncframework.optimizer.OInitializer;
 import io.syncframework.optimizer.OInterceptor;
 
 /**
+ * Holds the \@Interceptors of the application. Each request executes its own instances of the \@Interceptors,
+ * taken from a striped pool and reset once the request has been handled, so concurrent requests never share
+ * the \@Parameters and \@Contexts of an \@Interceptor. \@Interceptors keeping state on any other field are
+ * not pooled: a new instance handles each request.
+ *
  * @author dfroz
  */
 public class InterceptorFactory {
+	private static final Logger log = LoggerFactory.getLogger(InterceptorFactory.class);
 	private Application application;
-	private Map<Class<?>,InterceptorBean> map = new ConcurrentHashMap<Class<?>,InterceptorBean>();
+	private Map<Class<?>,Provider> map = new ConcurrentHashMap<Class<?>,Provider>();
 
 	public InterceptorFactory(Application application) {
 		this.application = application;
 	}
 
-	public InterceptorBean[] find(Class<?> classes[]) {
+	/**
+	 * @return providers of the \@Interceptors registered for the classes, in the same order; null if none
+	 * is registered
+	 */
+	Provider[] find(Class<?> classes[]) {
 		if(classes == null)
 			return null;
 		
-		int total = 0;		
+		int total = 0;
 		for(int i=0; i < classes.length; i++) {
-			// if(classes[i].equals(Object.class))
-			//	continue;
 			if(map.containsKey(classes[i]))
 				total++;
+			else if(log.isWarnEnabled())
+				log.warn("{}: {} is not a registered @Interceptor; ignored", application, classes[i].getName());
 		}
 		if(total == 0) {
 			return null;
 		}
 		
 		int j=0;
-		InterceptorBean interceptors[] = new InterceptorBean[total];
+		Provider providers[] = new Provider[total];
 		for(int i=0; i < classes.length; i++) {
-			// if(classes[i].equals(Object.class))
-			//	continue;
-			InterceptorBean interceptor = map.get(classes[i]);
-			interceptors[j++] = interceptor;
+			Provider provider = map.get(classes[i]);
+			if(provider != null)
+				providers[j++] = provider;
 		}
-		return interceptors;
+		return providers;
 	}
 
 	public void register(Class<?> clazz) throws Exception {
@@ -65,6 +78,60 @@ public class InterceptorFactory {
 			throw new IllegalArgumentException(clazz+" is not a valid @Initializer");
 
 		OInterceptor i = (OInterceptor)clazz.getDeclaredConstructor().newInstance();
-		map.put(clazz, new InterceptorBean(application, i));
+		if(!i._asPoolable() && log.isWarnEnabled()) {
+			log.warn("{}: @Interceptor {} keeps state on fields other than its @Parameters and @Contexts; "+
+					"a new instance handles each request", application, clazz.getName());
+		}
+		map.put(clazz, new Provider(i, BindingPlan.of(application, i)));
+	}
+
+	/**
+	 * Provides the instances of an \@Interceptor from a striped pool, so threads handling requests seldom
+	 * contend for the same slot; or new instances, if the \@Interceptor is not poolable. Holds the binding of
+	 * the request parameters shared by all instances.
+	 */
+	static class Provider {
+		private static final int STRIPES;
+		static {
+			int stripes = 1;
+			while(stripes < Runtime.getRuntime().availableProcessors() * 2)
+				stripes <<= 1;
+			STRIPES = stripes;
+		}
+		private final OInterceptor prototype;
+		private final AtomicReferenceArray<OInterceptor> pool = new AtomicReferenceArray<OInterceptor>(STRIPES);
+		private final BindingPlan plan;
+		private final boolean poolable;
+
+		private Provider(OInterceptor prototype, BindingPlan plan) {
+			this.prototype = prototype;
+			this.plan = plan;
+			this.poolable = prototype._asPoolable();
+		}
+
+		OInterceptor get() {
+			if(!poolable)
+				return prototype._asNewInstance();
+			OInterceptor interceptor = pool.getAndSet(stripe(), null);
+			if(interceptor != null)
+				return interceptor;
+			return prototype._asNewInstance();
+		}
+
+		void release(OInterceptor interceptor) {
+			if(!poolable)
+				return;
+			interceptor._asReset();
+			// discarded if another instance took the place meanwhile
+			pool.compareAndSet(stripe(), null, interceptor);
+		}
+
+		BindingPlan getBindingPlan() {
+			return plan;
+		}
+
+		private static int stripe() {
+			return (int)Thread.currentThread().getId() & (STRIPES - 1);
+		}
 	}
 }
@@ -27,6 +27,7 @@ import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.syncframework.optimizer.ClassIndex;
 import io.syncframework.optimizer.OController;
 import io.syncframework.optimizer.OInitializer;
 import io.syncframework.optimizer.OInterceptor;
@@ -34,6 +35,9 @@ import io.syncframework.optimizer.OInterceptor;
 /**
  * Responsible for load the application's classes and libraries.
  * 
+ * Only the classes listed by the {@link ClassIndex} of the WorkDirectory are loaded; any other class is 
+ * loaded on demand. Without an index, all the classes are loaded and inspected.
+ * 
  * @author dfroz
  */
 public class Loader {
@@ -149,10 +153,13 @@ public class Loader {
 		//
 		// add <domain>/classes directory to the ClassLoader's path
 		//
+		ClassIndex index = null;
 		if(workDirectory.isDirectory()) {
 			URL url = workDirectory.toURI().toURL();
 			urls.put(url, url);
-			scanClassesDirectory(workDirectory);
+			index = ClassIndex.read(workDirectory);
+			if(index == null)
+				scanClassesDirectory(workDirectory);
 		}
 		if(libDirectory.isDirectory()) {
 			URL url = libDirectory.toURI().toURL();
@@ -176,6 +183,25 @@ public class Loader {
 			return;
 		}
 
+		if(index != null) {
+			List<String> names = new ArrayList<String>();
+			names.addAll(index.getInitializers());
+			names.addAll(index.getInterceptors());
+			names.addAll(index.getControllers());
+			for(String name: names) {
+				try {
+					inspectClass(name);
+				}
+				catch(ClassNotFoundException e) {
+					log.error("failed to load indexed class: "+name);
+					throw new InvocationTargetException(e);
+				}
+			}
+			if(log.isDebugEnabled())
+				log.debug("{} loaded {} indexed classes", application, names.size());
+			return;
+		}
+		
 		for(File file: classFiles) {
 			try {
 				inspectClass(normalizeClassName(file.getAbsolutePath()));
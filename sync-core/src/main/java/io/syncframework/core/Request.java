@@ -28,6 +28,10 @@ import io.syncframework.api.RequestContext;
  *
  */
 public interface Request extends Recyclable {
+	/**
+	 * @return request parameters already converted by the \@Interceptors and the \@Controller binding them
+	 */
+	public ConversionCache getConversionCache();
 	public CookieContext getCookieContext();
 	public Map<String, FileUpload> getFiles();
 	public List<String> getHeader(String name);
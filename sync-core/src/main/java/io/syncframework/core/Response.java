@@ -30,7 +30,7 @@ public class Response implements Recyclable {
 	private Application application;
 	private File file;
 	private final Map<String, String> headers = new ConcurrentHashMap<String, String>();
-	private final OutputStream outputStream = new ByteArrayOutputStream(8 * 1024);
+	private ByteArrayOutputStream outputStream;
 	private Session session;
 	private int status = 200;
 	
@@ -62,9 +62,22 @@ public class Response implements Recyclable {
 		this.session = session;
 	}
 
+	/**
+	 * @return stream receiving the response body; allocated on the first call.
+	 */
 	public OutputStream getOutputStream() {
+		if(outputStream == null)
+			outputStream = new ByteArrayOutputStream(8 * 1024);
 		return outputStream;
 	}
+
+	/**
+	 * Discards the response body written so far.
+	 */
+	public void resetOutputStream() {
+		if(outputStream != null)
+			outputStream.reset();
+	}
 	
 	public int getStatus() {
 		return status;
@@ -81,6 +94,6 @@ public class Response implements Recyclable {
 		session = null;
 		status = 200;
 		headers.clear();
-		((ByteArrayOutputStream)outputStream).reset();
+		resetOutputStream();
 	}
 }
\ No newline at end of file
@@ -24,15 +24,63 @@ import java.io.InputStream;
  */
 public class ServerConfig extends Config {
 	private static final long serialVersionUID = 3938816221618284519L;
+	/**
+	 * MIME types already compressed; <code>type/*</code> matches all subtypes.
+	 */
+	public static final String COMPRESSION_EXCLUDED_TYPES = "image/png, image/jpeg, image/gif, image/webp, audio/*, video/*, "
+			+ "font/woff, font/woff2, application/zip, application/gzip, application/x-gzip, application/x-bzip2, "
+			+ "application/x-7z-compressed, application/x-rar-compressed, application/pdf, application/octet-stream";
 	private String listenAddress;
 	private Integer listenPort;
 	private Boolean trustedProxyMode;
+	private Boolean keepAlive;
+	private Integer keepAliveTimeout;
+	private Integer keepAliveMaxRequests;
+	private Integer pipeliningDepth;
+	private Integer flushConsolidationLimit;
+	private Boolean http2;
+	private Integer http2MaxConcurrentStreams;
+	private String dispatcher;
+	private Integer dispatcherThreads;
+	private Integer dispatcherQueue;
+	private Integer dispatcherConcurrency;
+	private Boolean compression;
+	private Integer compressionLevel;
+	private Integer compressionMinSize;
+	private String compressionExcludedTypes[];
+	private Integer staticCacheEntries;
+	private Integer staticCacheTtl;
+	private Integer staticMemoryCacheSize;
+	private Integer staticMemoryCacheMaxFileSize;
+	private Integer notFoundCacheEntries;
+	private Integer notFoundCacheTtl;
 	
 	public void load(InputStream is) throws IOException {
 		super.load(is);
 		listenAddress = getString("listen.address");
 		listenPort = getInt("listen.port", 8080);
 		trustedProxyMode = getBoolean("trusted.proxy.mode", false);
+		keepAlive = getBoolean("keepalive", true);
+		keepAliveTimeout = getInt("keepalive.timeout", 60);
+		keepAliveMaxRequests = getInt("keepalive.max.requests", 1000);
+		pipeliningDepth = getInt("pipelining.depth", 16);
+		flushConsolidationLimit = getInt("flush.consolidation.limit", 256);
+		http2 = getBoolean("http2", false);
+		http2MaxConcurrentStreams = getInt("http2.max.concurrent.streams", 100);
+		dispatcher = getString("dispatcher", "workstealing");
+		dispatcherThreads = getInt("dispatcher.threads", 50);
+		dispatcherQueue = getInt("dispatcher.queue", 1024);
+		dispatcherConcurrency = getInt("dispatcher.concurrency", 1000);
+		compression = getBoolean("compression", true);
+		compressionLevel = getInt("compression.level", 6);
+		compressionMinSize = getInt("compression.min.size", 1024);
+		compressionExcludedTypes = getString("compression.excluded.types", COMPRESSION_EXCLUDED_TYPES).toLowerCase().split("\\s*,\\s*");
+		staticCacheEntries = getInt("static.cache.entries", 4096);
+		staticCacheTtl = getInt("static.cache.ttl", 2);
+		staticMemoryCacheSize = getInt("static.memory.cache.size", 64 * 1024 * 1024);
+		staticMemoryCacheMaxFileSize = getInt("static.memory.cache.max.file.size", 64 * 1024);
+		notFoundCacheEntries = getInt("notfound.cache.entries", 8192);
+		notFoundCacheTtl = getInt("notfound.cache.ttl", 30);
 	}
 
 	public String getListenAddress() {
@@ -58,4 +106,172 @@ public class ServerConfig extends Config {
 	public void setTrustedProxyMode(Boolean trustedProxyMode) {
 		this.trustedProxyMode = trustedProxyMode;
 	}
+
+	public Boolean getKeepAlive() {
+		return keepAlive;
+	}
+
+	public void setKeepAlive(Boolean keepAlive) {
+		this.keepAlive = keepAlive;
+	}
+
+	public Integer getKeepAliveTimeout() {
+		return keepAliveTimeout;
+	}
+
+	public void setKeepAliveTimeout(Integer keepAliveTimeout) {
+		this.keepAliveTimeout = keepAliveTimeout;
+	}
+
+	public Integer getKeepAliveMaxRequests() {
+		return keepAliveMaxRequests;
+	}
+
+	public void setKeepAliveMaxRequests(Integer keepAliveMaxRequests) {
+		this.keepAliveMaxRequests = keepAliveMaxRequests;
+	}
+
+	public Integer getPipeliningDepth() {
+		return pipeliningDepth;
+	}
+
+	public void setPipeliningDepth(Integer pipeliningDepth) {
+		this.pipeliningDepth = pipeliningDepth;
+	}
+
+	public Integer getFlushConsolidationLimit() {
+		return flushConsolidationLimit;
+	}
+
+	public void setFlushConsolidationLimit(Integer flushConsolidationLimit) {
+		this.flushConsolidationLimit = flushConsolidationLimit;
+	}
+
+	public Boolean getHttp2() {
+		return http2;
+	}
+
+	public void setHttp2(Boolean http2) {
+		this.http2 = http2;
+	}
+
+	public Integer getHttp2MaxConcurrentStreams() {
+		return http2MaxConcurrentStreams;
+	}
+
+	public void setHttp2MaxConcurrentStreams(Integer http2MaxConcurrentStreams) {
+		this.http2MaxConcurrentStreams = http2MaxConcurrentStreams;
+	}
+
+	public String getDispatcher() {
+		return dispatcher;
+	}
+
+	public void setDispatcher(String dispatcher) {
+		this.dispatcher = dispatcher;
+	}
+
+	public Integer getDispatcherThreads() {
+		return dispatcherThreads;
+	}
+
+	public void setDispatcherThreads(Integer dispatcherThreads) {
+		this.dispatcherThreads = dispatcherThreads;
+	}
+
+	public Integer getDispatcherQueue() {
+		return dispatcherQueue;
+	}
+
+	public void setDispatcherQueue(Integer dispatcherQueue) {
+		this.dispatcherQueue = dispatcherQueue;
+	}
+
+	public Integer getDispatcherConcurrency() {
+		return dispatcherConcurrency;
+	}
+
+	public void setDispatcherConcurrency(Integer dispatcherConcurrency) {
+		this.dispatcherConcurrency = dispatcherConcurrency;
+	}
+
+	public Boolean getCompression() {
+		return compression;
+	}
+
+	public void setCompression(Boolean compression) {
+		this.compression = compression;
+	}
+
+	public Integer getCompressionLevel() {
+		return compressionLevel;
+	}
+
+	public void setCompressionLevel(Integer compressionLevel) {
+		this.compressionLevel = compressionLevel;
+	}
+
+	public Integer getCompressionMinSize() {
+		return compressionMinSize;
+	}
+
+	public void setCompressionMinSize(Integer compressionMinSize) {
+		this.compressionMinSize = compressionMinSize;
+	}
+
+	public String[] getCompressionExcludedTypes() {
+		return compressionExcludedTypes;
+	}
+
+	public void setCompressionExcludedTypes(String[] compressionExcludedTypes) {
+		this.compressionExcludedTypes = compressionExcludedTypes;
+	}
+
+	public Integer getStaticCacheEntries() {
+		return staticCacheEntries;
+	}
+
+	public void setStaticCacheEntries(Integer staticCacheEntries) {
+		this.staticCacheEntries = staticCacheEntries;
+	}
+
+	public Integer getStaticCacheTtl() {
+		return staticCacheTtl;
+	}
+
+	public void setStaticCacheTtl(Integer staticCacheTtl) {
+		this.staticCacheTtl = staticCacheTtl;
+	}
+
+	public Integer getStaticMemoryCacheSize() {
+		return staticMemoryCacheSize;
+	}
+
+	public void setStaticMemoryCacheSize(Integer staticMemoryCacheSize) {
+		this.staticMemoryCacheSize = staticMemoryCacheSize;
+	}
+
+	public Integer getStaticMemoryCacheMaxFileSize() {
+		return staticMemoryCacheMaxFileSize;
+	}
+
+	public void setStaticMemoryCacheMaxFileSize(Integer staticMemoryCacheMaxFileSize) {
+		this.staticMemoryCacheMaxFileSize = staticMemoryCacheMaxFileSize;
+	}
+
+	public Integer getNotFoundCacheEntries() {
+		return notFoundCacheEntries;
+	}
+
+	public void setNotFoundCacheEntries(Integer notFoundCacheEntries) {
+		this.notFoundCacheEntries = notFoundCacheEntries;
+	}
+
+	public Integer getNotFoundCacheTtl() {
+		return notFoundCacheTtl;
+	}
+
+	public void setNotFoundCacheTtl(Integer notFoundCacheTtl) {
+		this.notFoundCacheTtl = notFoundCacheTtl;
+	}
 }
@@ -15,6 +15,9 @@
  */
 package io.syncframework.core;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * <p>URLPattern responsible for handling url patterns included in the Controllers</p>
  * 
@@ -28,12 +31,16 @@ package io.syncframework.core;
  * Request to /users/add.do; return true (matches action "add")
  * Request to /users/list.html;allusers,max=10; return true (matches action "list")
  * 
+ * Patterns may declare path variables as whole segments, such as /orders/{id}/items or /orders/{id}/*, 
+ * whose values are bound to the \@Parameter of the same name. Path variables are matched by {@link URLRouter} only.
+ * 
  * @param url
  * @author dfroz
  */
 public class URLPattern {
 	private String pattern;
 	private boolean wildcard;
+	private String variables[] = new String[0];
 
 	public URLPattern() {
 		this.wildcard = false;
@@ -52,13 +59,32 @@ public class URLPattern {
 
 		int sp = -1;
 		int ap = -1;
+		List<String> names = new ArrayList<String>();
 		// System.out.println("pattern: "+pattern);
 		for(int i=0; i < pattern.length(); i++) {
 			char ch = pattern.charAt(i);
 			
 			// validating url pattern
-			// only allows [*\./9-0a-zA-Z]+
+			// only allows [*\./9-0a-zA-Z]+ and {variable} segments
 			// System.out.print(ch+" ");
+			if(ch == '{' && ap == -1) {
+				// path variable: whole segment
+				int end = pattern.indexOf('}', i);
+				if(sp != i-1 || end == -1 || (end+1 < pattern.length() && pattern.charAt(end+1) != '/'))
+					throw new URLPatternException("unsupported pattern: "+pattern+"; path variables shall be whole segments");
+				String name = pattern.substring(i+1, end);
+				if(name.length() == 0 || !Character.isJavaIdentifierStart(name.charAt(0)))
+					throw new URLPatternException("unsupported pattern: "+pattern+"; invalid path variable: "+name);
+				for(int j=1; j < name.length(); j++) {
+					if(!Character.isJavaIdentifierPart(name.charAt(j)))
+						throw new URLPatternException("unsupported pattern: "+pattern+"; invalid path variable: "+name);
+				}
+				if(names.contains(name))
+					throw new URLPatternException("unsupported pattern: "+pattern+"; path variable "+name+" declared twice");
+				names.add(name);
+				i = end;
+				continue;
+			}
 			if(ch != 42 && ch != 46 && ch != 47 && 
 					!(ch >= 48 && ch <= 57) && !(ch >= 65 && ch <= 90)
 					&& !(ch >= 97 && ch <= 122)) {
@@ -85,6 +111,7 @@ public class URLPattern {
 			wildcard = true;
 			this.pattern = pattern.substring(0, ap);
 		}
+		variables = names.toArray(new String[names.size()]);
 	}
 
 	/**
@@ -118,8 +145,8 @@ public class URLPattern {
 		int i=0;
 		for(i=0; i < url.length(); i++) {
 			char ch = url.charAt(i);
-			// next if . or / or 0-9
-			if(ch == 46 || ch == 47 || (ch >= 48 && ch <= 57)) 
+			// next if . or / or 0-9 or - or _ or ~
+			if(ch == 46 || ch == 47 || (ch >= 48 && ch <= 57) || ch == 45 || ch == 95 || ch == 126) 
 				continue;
 			// next if A-Za-z
 			ch = (char)(ch & ~0x20);
@@ -211,6 +238,20 @@ public class URLPattern {
 		return action;
 	}
 
+	/**
+	 * @return true if the pattern ends with the wildcard '*'; {@link #toString()} returns the prefix preceding it.
+	 */
+	public boolean isWildcard() {
+		return wildcard;
+	}
+
+	/**
+	 * @return names of the path variables, in the order declared
+	 */
+	public String[] getVariables() {
+		return variables;
+	}
+
 	public String toString() {
 		return pattern;
 	}
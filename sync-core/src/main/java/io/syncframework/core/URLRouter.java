@@ -0,0 +1,360 @@
+/*
+ * Copyright 2016 SyncObjects Ltda.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syncframework.core;
+
+import java.util.Collection;
+
+/**
+ * <p>Radix tree of the URL patterns of the \@Controllers, compiled as they are registered.</p>
+ * 
+ * Requests are matched walking the tree along the URL, in time proportional to its length and without
+ * allocating any object, with the same rules of {@link URLPattern#action(String)}: an exact pattern matches
+ * only the same URL; a wildcard pattern (/users/*) matches the URLs starting with its prefix with no slash 
+ * after it. When both match, the longer pattern prevails.
+ * 
+ * Path variables ({id}) match any non empty segment; their values are recorded as offsets into the URL. Static 
+ * segments are tried before path variables, so /orders/new prevails over /orders/{id}.
+ * 
+ * The action of each pattern is resolved when it is registered: the known action names of a wildcard pattern 
+ * are kept in a table looked up with the region of the URL naming the action. URLs naming no declared action 
+ * are handled by the "main" action, if declared. Each action is also resolved to its id: its position among the
+ * actions registered.
+ * 
+ * This class is not thread safe for registration; once all patterns are registered it may be matched
+ * concurrently.
+ * 
+ * @author dfroz
+ */
+public class URLRouter<T> {
+	private static final String MAIN = "main";
+	private final Node<T> root = new Node<T>(new char[0]);
+	private int size;
+	private int maxVariables;
+
+	/**
+	 * Registers the pattern compiled.
+	 * @param target object handling the requests matching the pattern
+	 * @param actions names of the actions declared by the target, in the order of their ids
+	 * @throws URLPatternException if another target is already registered on the same pattern
+	 */
+	public void add(URLPattern pattern, T target, Collection<String> actions) {
+		String key = pattern.toString();
+		String variables[] = pattern.getVariables();
+		Node<T> node = insert(key);
+		if(pattern.isWildcard()) {
+			if(node.wildcard != null)
+				throw new URLPatternException("URL pattern "+key+"* already registered");
+			node.wildcard = new Route<T>(size, null, new ActionTable<T>(target, variables, actions));
+		}
+		else {
+			if(node.exact != null)
+				throw new URLPatternException("URL pattern "+key+" already registered");
+			// action named by the last segment, up to the first '.'
+			int first = key.lastIndexOf('/') + 1;
+			int last = first;
+			while(last < key.length() && key.charAt(last) != '.')
+				last++;
+			String action = key.substring(first, last);
+			Match<T> match;
+			if(first == key.length())
+				match = null; // patterns ending with / never match
+			else if(actions.contains(action))
+				match = new Match<T>(target, action, id(actions, action), variables);
+			else
+				match = new Match<T>(target, actions.contains(MAIN) ? MAIN : null, id(actions, MAIN), variables);
+			node.exact = new Route<T>(size, match, null);
+		}
+		size++;
+		maxVariables = Math.max(maxVariables, variables.length);
+	}
+
+	/**
+	 * @param offsets receives the start and end offsets into the URL of each path variable of the pattern matched;
+	 * its length shall be at least twice {@link #getMaxVariables()}.
+	 * @return the target and the action handling the URL; null if no pattern matches the URL.
+	 */
+	public Match<T> match(String url, int offsets[]) {
+		if(url == null)
+			throw new IllegalArgumentException("url cannot be null");
+		if(maxVariables > 0 && (offsets == null || offsets.length < maxVariables * 2))
+			throw new IllegalArgumentException("offsets shall hold "+maxVariables+" path variables");
+
+		// the URL is considered up to the first character other than [./0-9A-Za-z-_~]
+		int end = 0;
+		int lsp = -1;
+		for(; end < url.length(); end++) {
+			char ch = url.charAt(end);
+			if(ch == '/') {
+				lsp = end;
+				continue;
+			}
+			if(ch == '.' || ch == '-' || ch == '_' || ch == '~' || (ch >= '0' && ch <= '9') || 
+					(ch >= 'A' && ch <= 'Z') || (ch >= 'a' && ch <= 'z'))
+				continue;
+			break;
+		}
+		if(lsp == -1)
+			return null;
+
+		return match(root, url, 0, end, lsp, 0, offsets);
+	}
+
+	/**
+	 * Walks the tree from the node reached at the position of the URL: the deepest pattern matched prevails.
+	 */
+	private Match<T> match(Node<T> node, String url, int i, int end, int lsp, int variable, int offsets[]) {
+		if(i < end) {
+			Node<T> child = node.child(url.charAt(i));
+			if(child != null && child.matches(url, i, end)) {
+				Match<T> match = match(child, url, i + child.label.length, end, lsp, variable, offsets);
+				if(match != null)
+					return match;
+			}
+			if(node.variable != null && url.charAt(i) != '/') {
+				int last = i + 1;
+				while(last < end && url.charAt(last) != '/')
+					last++;
+				offsets[variable * 2] = i;
+				offsets[variable * 2 + 1] = last;
+				Match<T> match = match(node.variable, url, last, end, lsp, variable + 1, offsets);
+				if(match != null)
+					return match;
+			}
+		}
+
+		Route<T> exact = i == end && node.exact != null && node.exact.match != null ? node.exact : null;
+		// the wildcard pattern shall not be followed by any other slash
+		Route<T> wildcard = node.wildcard != null && lsp <= i ? node.wildcard : null;
+		if(exact != null && (wildcard == null || exact.order < wildcard.order))
+			return exact.match;
+		if(wildcard != null)
+			return wildcard.actions.lookup(url, lsp + 1, end);
+		return null;
+	}
+
+	/**
+	 * @return number of patterns registered
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return maximum number of path variables of the patterns registered
+	 */
+	public int getMaxVariables() {
+		return maxVariables;
+	}
+
+	/**
+	 * @return position of the action among the actions; -1 if not present
+	 */
+	private static int id(Collection<String> actions, String action) {
+		int id = 0;
+		for(String name: actions) {
+			if(name.equals(action))
+				return id;
+			id++;
+		}
+		return -1;
+	}
+
+	private Node<T> insert(String key) {
+		Node<T> node = root;
+		int i = 0;
+		while(i < key.length()) {
+			char ch = key.charAt(i);
+			if(ch == '{') {
+				// path variable: the whole segment
+				if(node.variable == null)
+					node.variable = new Node<T>(null);
+				node = node.variable;
+				i = key.indexOf('}', i) + 1;
+				continue;
+			}
+			// static characters up to the next path variable
+			int end = key.indexOf('{', i);
+			if(end == -1)
+				end = key.length();
+			Node<T> child = node.child(ch);
+			if(child == null) {
+				child = new Node<T>(key.substring(i, end).toCharArray());
+				node.child(ch, child);
+				node = child;
+				i = end;
+				continue;
+			}
+			int common = 0;
+			while(common < child.label.length && i + common < end && child.label[common] == key.charAt(i + common))
+				common++;
+			if(common < child.label.length) {
+				// splits the edge where the key diverges
+				Node<T> split = new Node<T>(key.substring(i, i + common).toCharArray());
+				char label[] = new char[child.label.length - common];
+				System.arraycopy(child.label, common, label, 0, label.length);
+				child.label = label;
+				split.child(label[0], child);
+				node.child(ch, split);
+				child = split;
+			}
+			i += common;
+			node = child;
+		}
+		return node;
+	}
+
+	/**
+	 * Target and action handling the requests
+	 */
+	public static class Match<T> {
+		private final T target;
+		private final String action;
+		private final int actionId;
+		private final String variables[];
+
+		private Match(T target, String action, int actionId, String variables[]) {
+			this.target = target;
+			this.action = action;
+			this.actionId = actionId;
+			this.variables = variables;
+		}
+
+		public T getTarget() {
+			return target;
+		}
+		/**
+		 * @return name of the action; null when the target declares neither the action requested nor "main"
+		 */
+		public String getAction() {
+			return action;
+		}
+		/**
+		 * @return position of the action among the actions registered; -1 when there is no action
+		 */
+		public int getActionId() {
+			return actionId;
+		}
+		/**
+		 * @return names of the path variables of the pattern, whose offsets are recorded in the same order
+		 */
+		public String[] getVariables() {
+			return variables;
+		}
+	}
+
+	private static class Route<T> {
+		private final int order;
+		private final Match<T> match;
+		private final ActionTable<T> actions;
+
+		private Route(int order, Match<T> match, ActionTable<T> actions) {
+			this.order = order;
+			this.match = match;
+			this.actions = actions;
+		}
+	}
+
+	private static class Node<T> {
+		private char label[];
+		private Node<T> children[];
+		// child matching a path variable
+		private Node<T> variable;
+		private Route<T> exact;
+		private Route<T> wildcard;
+
+		private Node(char label[]) {
+			this.label = label;
+		}
+
+		private Node<T> child(char ch) {
+			if(children == null || ch >= children.length)
+				return null;
+			return children[ch];
+		}
+
+		@SuppressWarnings("unchecked")
+		private void child(char ch, Node<T> child) {
+			// patterns are made of ASCII characters only
+			if(children == null)
+				children = new Node[128];
+			children[ch] = child;
+		}
+
+		private boolean matches(String url, int offset, int end) {
+			if(offset + label.length > end)
+				return false;
+			for(int i = 0; i < label.length; i++) {
+				if(label[i] != url.charAt(offset + i))
+					return false;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Open addressing table of the actions of a wildcard pattern, looked up by a region of the URL
+	 */
+	private static class ActionTable<T> {
+		private final String names[];
+		private final Match<T> matches[];
+		private final Match<T> fallback;
+
+		@SuppressWarnings("unchecked")
+		private ActionTable(T target, String variables[], Collection<String> actions) {
+			int capacity = 2;
+			while(capacity < actions.size() * 2)
+				capacity <<= 1;
+			names = new String[capacity];
+			matches = new Match[capacity];
+			for(String action: actions) {
+				int i = hash(action, 0, action.length()) & (capacity - 1);
+				while(names[i] != null)
+					i = (i + 1) & (capacity - 1);
+				names[i] = action;
+				matches[i] = new Match<T>(target, action, id(actions, action), variables);
+			}
+			fallback = new Match<T>(target, actions.contains(MAIN) ? MAIN : null, id(actions, MAIN), variables);
+		}
+
+		/**
+		 * @return match of the action named by the letters and digits from offset
+		 */
+		private Match<T> lookup(String url, int offset, int end) {
+			int last = offset;
+			for(; last < end; last++) {
+				char ch = url.charAt(last);
+				if(!(ch >= '0' && ch <= '9') && !(ch >= 'A' && ch <= 'Z') && !(ch >= 'a' && ch <= 'z'))
+					break;
+			}
+			int length = last - offset;
+			if(length == 0)
+				return fallback;
+			int i = hash(url, offset, last) & (names.length - 1);
+			for(String name = names[i]; name != null; name = names[i = (i + 1) & (names.length - 1)]) {
+				if(name.length() == length && url.regionMatches(offset, name, 0, length))
+					return matches[i];
+			}
+			return fallback;
+		}
+
+		private static int hash(String s, int offset, int end) {
+			int h = 0;
+			for(int i = offset; i < end; i++)
+				h = 31 * h + s.charAt(i);
+			return h ^ (h >>> 16);
+		}
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2016 SyncObjects Ltda.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syncframework.optimizer;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import io.syncframework.api.Controller;
+import io.syncframework.api.Initializer;
+import io.syncframework.api.Interceptor;
+
+/**
+ * Index of the \@Controllers, \@Interceptors and \@Initializers of the application, found by reading the
+ * annotations of the class files with ASM; no class is loaded to build it.
+ *
+ * The index is written by the Optimizer to the WorkDirectory, so only the indexed classes are loaded on
+ * startup. Any other class is loaded on demand by the application.
+ *
+ * @author dfroz
+ */
+public class ClassIndex {
+	public static final String FILENAME = ".index";
+	private static final String CONTROLLER = "controller";
+	private static final String INTERCEPTOR = "interceptor";
+	private static final String INITIALIZER = "initializer";
+	private static final String CONTROLLER_DESCRIPTOR = Type.getDescriptor(Controller.class);
+	private static final String INTERCEPTOR_DESCRIPTOR = Type.getDescriptor(Interceptor.class);
+	private static final String INITIALIZER_DESCRIPTOR = Type.getDescriptor(Initializer.class);
+	// class name and kind, sorted by class name
+	private final Map<String,String> classes = new TreeMap<String,String>();
+
+	/**
+	 * Reads the annotations of the class file, indexing the class if it is a \@Controller, \@Interceptor
+	 * or \@Initializer.
+	 *
+	 * @return true if the class was indexed
+	 */
+	public boolean add(ClassReader cr) {
+		final String kind[] = new String[1];
+		cr.accept(new ClassVisitor(Opcodes.ASM5) {
+			@Override
+			public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+				// only annotations retained at runtime, as seen by Class.isAnnotationPresent()
+				if(!visible || kind[0] != null)
+					return null;
+				if(descriptor.equals(CONTROLLER_DESCRIPTOR))
+					kind[0] = CONTROLLER;
+				else if(descriptor.equals(INTERCEPTOR_DESCRIPTOR))
+					kind[0] = INTERCEPTOR;
+				else if(descriptor.equals(INITIALIZER_DESCRIPTOR))
+					kind[0] = INITIALIZER;
+				return null;
+			}
+		}, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+		if(kind[0] == null)
+			return false;
+		synchronized(classes) {
+			classes.put(cr.getClassName().replace('/', '.'), kind[0]);
+		}
+		return true;
+	}
+
+	public boolean contains(String className) {
+		synchronized(classes) {
+			return classes.containsKey(className);
+		}
+	}
+
+	public List<String> getControllers() {
+		return get(CONTROLLER);
+	}
+
+	public List<String> getInterceptors() {
+		return get(INTERCEPTOR);
+	}
+
+	public List<String> getInitializers() {
+		return get(INITIALIZER);
+	}
+
+	private List<String> get(String kind) {
+		List<String> names = new ArrayList<String>();
+		synchronized(classes) {
+			for(Map.Entry<String,String> entry: classes.entrySet()) {
+				if(entry.getValue().equals(kind))
+					names.add(entry.getKey());
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * @return the index of the WorkDirectory; null if not found
+	 */
+	public static ClassIndex read(File workDirectory) throws IOException {
+		File file = new File(workDirectory, FILENAME);
+		if(!file.exists())
+			return null;
+		Properties properties = new Properties();
+		FileInputStream fis = new FileInputStream(file);
+		try { properties.load(fis); }
+		finally {
+			try { fis.close(); } catch(Exception ignore) {}
+		}
+		ClassIndex index = new ClassIndex();
+		for(String name: properties.stringPropertyNames())
+			index.classes.put(name, properties.getProperty(name));
+		return index;
+	}
+
+	public void write(File workDirectory) throws IOException {
+		Properties properties = new Properties();
+		synchronized(classes) {
+			properties.putAll(classes);
+		}
+		FileOutputStream fos = new FileOutputStream(new File(workDirectory, FILENAME));
+		try { properties.store(fos, null); }
+		finally {
+			try { fos.close(); } catch(Exception ignore) {}
+		}
+	}
+
+	@Override
+	public String toString() {
+		synchronized(classes) {
+			return classes.toString();
+		}
+	}
+}
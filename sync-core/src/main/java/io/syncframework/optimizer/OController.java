@@ -23,6 +23,7 @@ import io.syncframework.api.ErrorContext;
 import io.syncframework.api.MessageContext;
 import io.syncframework.api.RequestContext;
 import io.syncframework.api.Result;
+import io.syncframework.api.Scope;
 import io.syncframework.api.SessionContext;
 import io.syncframework.api.SessionManager;
 
@@ -44,19 +45,36 @@ public interface OController {
 	 * \@Controller's Session Manager
 	 */
 	public SessionManager _asSession();
+	/**
+	 * \@Controller's Scope
+	 */
+	public Scope _asScope();
 	/**
 	 * @return Map with \@Parameters name as key and Class<?> as value
 	 */
 	public Map<String, Class<?>> _asParameters();
+	/**
+	 * @return id of the \@Parameter, utilized by the getter and setter by id; -1 if not declared
+	 */
+	public int _asParameterId(String name);
 	/**
 	 * \@Parameter getter representation.
 	 * @return object.
 	 */
 	public Object _asParameter(String name);
+	public Object _asParameter(int id);
 	/**
 	 * \@Parameter setter representation.
 	 */
 	public void _asParameter(String name, Object value);
+	public void _asParameter(int id, Object value);
+	/**
+	 * \@Parameter setters of the primitive types, without boxing; ids of \@Parameters of other types are ignored.
+	 */
+	public void _asParameterInt(int id, int value);
+	public void _asParameterLong(int id, long value);
+	public void _asParameterDouble(int id, double value);
+	public void _asParameterBoolean(int id, boolean value);
 	/**
 	 * @return \@Converter class defined in the \@Parameter annotation. Returns null if there is no converter
 	 */
@@ -70,14 +88,26 @@ public interface OController {
 	public void _asMessageContext(MessageContext messages);
 	public void _asRequestContext(RequestContext request);
 	public void _asSessionContext(SessionContext session);
+	/**
+	 * @return id of the \@Action, utilized to execute it without resolving its name; -1 if not declared
+	 */
+	public int _asActionId(String name);
 	/**
 	 * execute \@Action specified by the name
 	 */
 	public Result _asAction(String name);
+	/**
+	 * execute \@Action specified by the id
+	 */
+	public Result _asAction(int id);
 	/**
 	 * Utilized to identify if the action exists (declared)
 	 */
 	public boolean _asActionIsDefined(String name);
+	/**
+	 * Utilized to identify if the action may block the calling thread; false when declared as \@Action(blocking=false)
+	 */
+	public boolean _asActionIsBlocking(String name);
 	/**
 	 * Utilized to return the interceptors
 	 */
@@ -86,4 +116,12 @@ public interface OController {
 	 * Shortcut to Content-Type header... 
 	 */
 	public String _asActionType(String name);
+	/**
+	 * @return new instance of the \@Controller, created without Java Reflection
+	 */
+	public OController _asNewInstance();
+	/**
+	 * Resets the \@Parameters and \@Contexts, so the instance may handle another request
+	 */
+	public void _asReset();
 }
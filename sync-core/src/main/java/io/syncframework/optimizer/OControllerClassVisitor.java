@@ -125,6 +125,7 @@ public class OControllerClassVisitor extends ClassVisitor {
 
 		createUrlMethod();
 		createSessionMethod();
+		createScopeMethod();
 
 		createContextMethod("_asApplicationContext", Type.getDescriptor(ApplicationContext.class), reflector.getApplicationContext());
 		createContextMethod("_asErrorContext", Type.getDescriptor(ErrorContext.class), reflector.getErrorContext());
@@ -134,14 +135,26 @@ public class OControllerClassVisitor extends ClassVisitor {
 		createContextMethod("_asSessionContext", Type.getDescriptor(SessionContext.class), reflector.getSessionContext());
 		
 		createParametersMethod();
+		createParameterIdMethod();
 		createParametersSetterMethod();
+		createParametersSetterByIdMethod();
+		createParameterPrimitiveSetterMethod("_asParameterInt", int.class);
+		createParameterPrimitiveSetterMethod("_asParameterLong", long.class);
+		createParameterPrimitiveSetterMethod("_asParameterDouble", double.class);
+		createParameterPrimitiveSetterMethod("_asParameterBoolean", boolean.class);
 		createParametersGetterMethod();
+		createParametersGetterByIdMethod();
 		createParameterConverterMethod();
 		
 		createActionType();
+		createActionIdMethod();
 		createActionMethod();
+		createActionByIdMethod();
 		createActionInterceptorsMethod();
 		createActionIsDefinedMethod();
+		createActionIsBlockingMethod();
+		createNewInstanceMethod();
+		createResetMethod();
 	}
 	
 	/**
@@ -171,77 +184,125 @@ public class OControllerClassVisitor extends ClassVisitor {
 	}
 	
 	/**
-	 * Generates _asActions() method with the following body:
+	 * Generates the code resolving the \@Action name to its id:
 	 * 
-	 * if(name.equals("upload"))
-	 * 	return upload();
-	 * else if(name.equals("save"))
-	 * 	return save();
-	 * else if(name.equals("main"))
-	 * 	return main();
-	 * else if(name.equals("redir"))
-	 * 	return redir();
-	 * else
-	 * 	throw new RuntimeException("no action named "+name);
+	 * public int _asActionId(String name) {
+	 * 	switch(name) {
+	 * 		case "upload": return 0;
+	 * 		case "save": return 1;
+	 * 		...
+	 * 	}
+	 * 	return -1;
+	 * }
+	 */
+	private void createActionIdMethod() {
+		MethodVisitor mv = cv.visitMethod(Opcodes.ACC_PUBLIC, "_asActionId", "(Ljava/lang/String;)I", null, null);
+		Label l0 = new Label();
+		Label l1 = new Label();
+		
+		mv.visitLabel(l0);
+		SwitchGenerator.generateIdLookup(mv, 1, reflector.getActions().keySet());
+		
+		mv.visitLabel(l1);
+		mv.visitLocalVariable("this", reflector.getClazzDescriptor(), null, l0, l1, 0);
+		mv.visitLocalVariable("name", "Ljava/lang/String;", null, l0, l1, 1);
+		mv.visitMaxs(2, 2);
+		mv.visitEnd();
+	}
+	
+	/**
+	 * Generates _asAction() method with the following body:
+	 * 
+	 * int id = _asActionId(name);
+	 * if(id < 0)
+	 * 	throw new NoSuchMethodException("no @Action named "+name);
+	 * return _asAction(id);
 	 */
 	private void createActionMethod() {
-		StringBuilder sb = new StringBuilder();
-		sb.append("(").append(Type.getType(String.class)).append(")").append(Type.getType(Result.class));
-		String desc = sb.toString();
+		String desc = "("+Type.getDescriptor(String.class)+")"+Type.getDescriptor(Result.class);
+		MethodVisitor mv = cv.visitMethod(Opcodes.ACC_PUBLIC, "_asAction", desc, null, null);
+		
+		Label l0 = new Label();
+		Label l1 = new Label();
+		Label l2 = new Label();
+		
+		mv.visitLabel(l0);
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitVarInsn(Opcodes.ALOAD, 1);
+		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, reflector.getClazzInternalName(), "_asActionId", "(Ljava/lang/String;)I", false);
+		mv.visitVarInsn(Opcodes.ISTORE, 2);
+		mv.visitVarInsn(Opcodes.ILOAD, 2);
+		mv.visitJumpInsn(Opcodes.IFLT, l1);
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitVarInsn(Opcodes.ILOAD, 2);
+		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, reflector.getClazzInternalName(), "_asAction", "(I)"+Type.getDescriptor(Result.class), false);
+		mv.visitInsn(Opcodes.ARETURN);
+		
+		mv.visitLabel(l1);
+		mv.visitTypeInsn(Opcodes.NEW, "java/lang/NoSuchMethodException");
+		mv.visitInsn(Opcodes.DUP);
+		mv.visitTypeInsn(Opcodes.NEW, "java/lang/StringBuilder");
+		mv.visitInsn(Opcodes.DUP);
+		mv.visitLdcInsn("no @Action named ");
+		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/StringBuilder", "<init>", "(Ljava/lang/String;)V", false);
+		mv.visitVarInsn(Opcodes.ALOAD, 1);
+		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/StringBuilder", "append", "(Ljava/lang/String;)Ljava/lang/StringBuilder;", false);
+		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/StringBuilder", "toString", "()Ljava/lang/String;", false);
+		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/NoSuchMethodException", "<init>", "(Ljava/lang/String;)V", false);
+		mv.visitInsn(Opcodes.ATHROW);
 		
+		mv.visitLabel(l2);
+		mv.visitLocalVariable("this", reflector.getClazzDescriptor(), null, l0, l2, 0);
+		mv.visitLocalVariable("name", "Ljava/lang/String;", null, l0, l2, 1);
+		mv.visitLocalVariable("id", "I", null, l0, l2, 2);
+		mv.visitMaxs(5, 3);
+		mv.visitEnd();
+	}
+	
+	/**
+	 * Generates _asAction(int) method with the following body:
+	 * 
+	 * switch(id) {
+	 * 	case 0: return upload();
+	 * 	case 1: return save();
+	 * 	...
+	 * }
+	 * throw new NoSuchMethodException("no @Action with id "+id);
+	 */
+	private void createActionByIdMethod() {
+		String desc = "(I)"+Type.getDescriptor(Result.class);
 		MethodVisitor mv = cv.visitMethod(Opcodes.ACC_PUBLIC, "_asAction", desc, null, null);
 		
-		Label start = new Label();
-		Label next = new Label();
-		Label variable = new Label();
-		boolean first = true;
+		Label l0 = new Label();
+		Label l1 = new Label();
+		Label l2 = new Label();
 		
+		mv.visitLabel(l0);
+		Label labels[] = SwitchGenerator.generateIdSwitch(mv, 1, reflector.getActions().size(), l1);
+		int id = 0;
 		for(String name: reflector.getActions().keySet()) {
-			Label l0 = null;
-			Label l1 = new Label();
-			
-			if(first) {
-				l0 = new Label();
-				first = false;
-			}
-			else {
-				l0 = next;
-				next = new Label();
-			}
-			
-			mv.visitLabel(l0);
-			if(!first) {
-				mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
-			}
-			mv.visitVarInsn(Opcodes.ALOAD, 1);
-			mv.visitLdcInsn(name);
-			mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/String", "equals", "(Ljava/lang/Object;)Z", false);
-			mv.visitJumpInsn(Opcodes.IFEQ, next);
-			
-			mv.visitLabel(l1);
+			mv.visitLabel(labels[id++]);
 			mv.visitVarInsn(Opcodes.ALOAD, 0);
-			mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, reflector.getClazzInternalName(), name, "()"+Type.getType(Result.class), false);
+			mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, reflector.getClazzInternalName(), name, "()"+Type.getDescriptor(Result.class), false);
 			mv.visitInsn(Opcodes.ARETURN);
 		}
-
-		mv.visitLabel(next);
-		mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+		
+		mv.visitLabel(l1);
 		mv.visitTypeInsn(Opcodes.NEW, "java/lang/NoSuchMethodException");
 		mv.visitInsn(Opcodes.DUP);
 		mv.visitTypeInsn(Opcodes.NEW, "java/lang/StringBuilder");
 		mv.visitInsn(Opcodes.DUP);
-		mv.visitLdcInsn("no @Action named ");
+		mv.visitLdcInsn("no @Action with id ");
 		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/StringBuilder", "<init>", "(Ljava/lang/String;)V", false);
-		mv.visitVarInsn(Opcodes.ALOAD, 1);
-		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/StringBuilder", "append", "(Ljava/lang/String;)Ljava/lang/StringBuilder;", false);
+		mv.visitVarInsn(Opcodes.ILOAD, 1);
+		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/StringBuilder", "append", "(I)Ljava/lang/StringBuilder;", false);
 		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/StringBuilder", "toString", "()Ljava/lang/String;", false);
 		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/NoSuchMethodException", "<init>", "(Ljava/lang/String;)V", false);
 		mv.visitInsn(Opcodes.ATHROW);
 		
-		mv.visitLabel(variable);
-		mv.visitLocalVariable("this", reflector.getClazzDescriptor(), null, start, next, 0);
-		mv.visitLocalVariable("name", "Ljava/lang/String;", null, start, next, 1);
-		
+		mv.visitLabel(l2);
+		mv.visitLocalVariable("this", reflector.getClazzDescriptor(), null, l0, l2, 0);
+		mv.visitLocalVariable("id", "I", null, l0, l2, 1);
 		mv.visitMaxs(5, 2);
 		mv.visitEnd();
 	}
@@ -312,6 +373,111 @@ public class OControllerClassVisitor extends ClassVisitor {
 		mv.visitEnd();
 	}
 	
+	/**
+	 * Generates this code:
+	 * 
+	 * public boolean _asActionIsBlocking(String name) {
+	 * 	if(Boolean.FALSE.equals(_asActions.get(name)))
+	 * 		return false;
+	 * 	return true;
+	 * }
+	 */
+	public void createActionIsBlockingMethod() {
+		MethodVisitor mv = cv.visitMethod(Opcodes.ACC_PUBLIC, "_asActionIsBlocking", "(Ljava/lang/String;)Z", null, null);
+		Label l0 = new Label();
+		Label l1 = new Label();
+		Label l2 = new Label();
+		Label l3 = new Label();
+		
+		mv.visitLabel(l0);
+		mv.visitFieldInsn(Opcodes.GETSTATIC, "java/lang/Boolean", "FALSE", "Ljava/lang/Boolean;");
+		mv.visitFieldInsn(Opcodes.GETSTATIC, reflector.getClazzInternalName(), "_asActions", "Ljava/util/Map;");
+		mv.visitVarInsn(Opcodes.ALOAD, 1);
+		mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, "java/util/Map", "get", "(Ljava/lang/Object;)Ljava/lang/Object;", true);
+		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/Boolean", "equals", "(Ljava/lang/Object;)Z", false);
+		mv.visitJumpInsn(Opcodes.IFEQ, l1);
+		
+		mv.visitLabel(l2);
+		mv.visitInsn(Opcodes.ICONST_0);
+		mv.visitInsn(Opcodes.IRETURN);
+		
+		mv.visitLabel(l1);
+		mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+		mv.visitInsn(Opcodes.ICONST_1);
+		mv.visitInsn(Opcodes.IRETURN);
+		
+		mv.visitLabel(l3);
+		mv.visitLocalVariable("this", reflector.getClazzDescriptor(), null, l0, l3, 0);
+		mv.visitLocalVariable("name", "Ljava/lang/String;", null, l0, l3, 1);
+		mv.visitMaxs(3, 2);
+		
+		mv.visitEnd();
+	}
+	
+	/**
+	 * Generates this code:
+	 * 
+	 * public OController _asNewInstance() {
+	 * 	return new Controller();
+	 * }
+	 */
+	public void createNewInstanceMethod() {
+		MethodVisitor mv = cv.visitMethod(Opcodes.ACC_PUBLIC, "_asNewInstance", "()"+Type.getDescriptor(OController.class), null, null);
+		Label l0 = new Label();
+		Label l1 = new Label();
+		
+		mv.visitLabel(l0);
+		mv.visitTypeInsn(Opcodes.NEW, reflector.getClazzInternalName());
+		mv.visitInsn(Opcodes.DUP);
+		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, reflector.getClazzInternalName(), "<init>", "()V", false);
+		mv.visitInsn(Opcodes.ARETURN);
+		
+		mv.visitLabel(l1);
+		mv.visitLocalVariable("this", reflector.getClazzDescriptor(), null, l0, l1, 0);
+		mv.visitMaxs(2, 1);
+		
+		mv.visitEnd();
+	}
+	
+	/**
+	 * Generates this code, for each \@Parameter and \@Context:
+	 * 
+	 * public void _asReset() {
+	 * 	this.parameter = null; // or 0, false for primitives
+	 * 	this.context = null;
+	 * }
+	 */
+	public void createResetMethod() {
+		MethodVisitor mv = cv.visitMethod(Opcodes.ACC_PUBLIC, "_asReset", "()V", null, null);
+		Label l0 = new Label();
+		Label l1 = new Label();
+		
+		mv.visitLabel(l0);
+		for(String name: reflector.getParameters().keySet())
+			resetField(mv, name, reflector.getParameters().get(name));
+		resetField(mv, reflector.getApplicationContext(), ApplicationContext.class);
+		resetField(mv, reflector.getCookieContext(), CookieContext.class);
+		resetField(mv, reflector.getErrorContext(), ErrorContext.class);
+		resetField(mv, reflector.getMessageContext(), MessageContext.class);
+		resetField(mv, reflector.getRequestContext(), RequestContext.class);
+		resetField(mv, reflector.getSessionContext(), SessionContext.class);
+		mv.visitInsn(Opcodes.RETURN);
+		
+		mv.visitLabel(l1);
+		mv.visitLocalVariable("this", reflector.getClazzDescriptor(), null, l0, l1, 0);
+		mv.visitMaxs(2, 1);
+		
+		mv.visitEnd();
+	}
+	
+	private void resetField(MethodVisitor mv, String name, Class<?> type) {
+		if(name == null)
+			return;
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		PrimitiveGenerator.pushDefault(mv, type);
+		mv.visitFieldInsn(Opcodes.PUTFIELD, reflector.getClazzInternalName(), name, Type.getDescriptor(type));
+	}
+	
 	/**
 	 * Generates context method setter: 
 	 * 
@@ -372,64 +538,100 @@ public class OControllerClassVisitor extends ClassVisitor {
 		mv.visitEnd();
 	}
 	
+	/**
+	 * Generates the code resolving the \@Parameter name to its id:
+	 * 
+	 * public int _asParameterId(String name) {
+	 * 	switch(name) {
+	 * 		case "name": return 0;
+	 * 		case "date": return 1;
+	 * 		...
+	 * 	}
+	 * 	return -1;
+	 * }
+	 */
+	private void createParameterIdMethod() {
+		MethodVisitor mv = cv.visitMethod(Opcodes.ACC_PUBLIC, "_asParameterId", "(Ljava/lang/String;)I", null, null);
+		Label l0 = new Label();
+		Label l1 = new Label();
+		
+		mv.visitLabel(l0);
+		SwitchGenerator.generateIdLookup(mv, 1, reflector.getParameters().keySet());
+		
+		mv.visitLabel(l1);
+		mv.visitLocalVariable("this", reflector.getClazzDescriptor(), null, l0, l1, 0);
+		mv.visitLocalVariable("name", "Ljava/lang/String;", null, l0, l1, 1);
+		mv.visitMaxs(2, 2);
+		mv.visitEnd();
+	}
+	
 	/**
 	 * Generates the _asParameter() getter as
 	 * 
 	 * public Object _asParameter(String name) {
-	 * 	if(name.equals("name"))
-	 * 		return getName();
-	 * 	if(name.equals("date"))
-	 * 		return getDate();
-	 * 	...
-	 * 	return null;
+	 * 	return _asParameter(_asParameterId(name));
 	 * }
 	 */
 	private void createParametersGetterMethod() {
 		MethodVisitor mv = cv.visitMethod(Opcodes.ACC_PUBLIC, "_asParameter", "(Ljava/lang/String;)Ljava/lang/Object;", null, null);
+		Label l0 = new Label();
+		Label l1 = new Label();
+		
+		mv.visitLabel(l0);
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitVarInsn(Opcodes.ALOAD, 1);
+		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, reflector.getClazzInternalName(), "_asParameterId", "(Ljava/lang/String;)I", false);
+		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, reflector.getClazzInternalName(), "_asParameter", "(I)Ljava/lang/Object;", false);
+		mv.visitInsn(Opcodes.ARETURN);
 		
-		Label start = new Label();
-		Label next = new Label();
-		Label variable = new Label();
-		boolean first = true;
+		mv.visitLabel(l1);
+		mv.visitLocalVariable("this", reflector.getClazzDescriptor(), null, l0, l1, 0);
+		mv.visitLocalVariable("name", "Ljava/lang/String;", null, l0, l1, 1);
+		mv.visitMaxs(3, 2);
+		mv.visitEnd();
+	}
+	
+	/**
+	 * Generates the _asParameter(int) getter as
+	 * 
+	 * public Object _asParameter(int id) {
+	 * 	switch(id) {
+	 * 		case 0: return getName();
+	 * 		case 1: return getDate();
+	 * 		...
+	 * 	}
+	 * 	return null;
+	 * }
+	 */
+	private void createParametersGetterByIdMethod() {
+		MethodVisitor mv = cv.visitMethod(Opcodes.ACC_PUBLIC, "_asParameter", "(I)Ljava/lang/Object;", null, null);
+		Label l0 = new Label();
+		Label l1 = new Label();
+		Label l2 = new Label();
 		
+		mv.visitLabel(l0);
+		Label labels[] = SwitchGenerator.generateIdSwitch(mv, 1, reflector.getParameters().size(), l1);
+		int id = 0;
 		for(String name: reflector.getParameters().keySet()) {
-			Label l0 = null;
-			Label l1 = new Label();
-			
-			if(first) {
-				l0 = new Label();
-				first = false;
-			}
-			else {
-				l0 = next;
-				next = new Label();
-			}
-			
-			mv.visitLabel(l0);
-			if(!first)
-				mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
-			mv.visitVarInsn(Opcodes.ALOAD, 1);
-			mv.visitLdcInsn(name);
-			mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/String", "equals", "(Ljava/lang/Object;)Z", false);
-			mv.visitJumpInsn(Opcodes.IFEQ, next);
-			
 			String methodGetterName = reflector.getGetters().get(name).getName();
 			String methodGetterDesc = "()"+Type.getDescriptor(reflector.getParameters().get(name));
 			
-			mv.visitLabel(l1);
+			mv.visitLabel(labels[id++]);
 			mv.visitVarInsn(Opcodes.ALOAD, 0);
 			mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, reflector.getClazzInternalName(), methodGetterName, methodGetterDesc, false);
+			PrimitiveGenerator.box(mv, reflector.getParameters().get(name));
 			mv.visitInsn(Opcodes.ARETURN);
 		}
 		
-		mv.visitLabel(next);
-		mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+		mv.visitLabel(l1);
 		mv.visitInsn(Opcodes.ACONST_NULL);
 		mv.visitInsn(Opcodes.ARETURN);
-		mv.visitLabel(variable);
-		mv.visitLocalVariable("this", reflector.getClazzDescriptor(), null, start, variable, 0);
-		mv.visitLocalVariable("name", "Ljava/lang/String;", null, start, variable, 1);
-		mv.visitMaxs(2, 2);
+		
+		mv.visitLabel(l2);
+		mv.visitLocalVariable("this", reflector.getClazzDescriptor(), null, l0, l2, 0);
+		mv.visitLocalVariable("id", "I", null, l0, l2, 1);
+		mv.visitMaxs(1, 2);
 		mv.visitEnd();
 	}
 	
@@ -437,75 +639,90 @@ public class OControllerClassVisitor extends ClassVisitor {
 	 * Creates the code as:
 	 * 
 	 * public void _asParameter(String name, Object value) {
-	 * 	if(name.equals("name") {
-	 * 		setName((String)value);
-	 * 		return;
-	 * 	}
-	 *	if(name.equals("date") {
-	 *		setDate((Date)value);
-	 *		return;
-	 *	}
-	 *	...
-	 * 	return;
+	 * 	_asParameter(_asParameterId(name), value);
 	 * } 
 	 */
 	private void createParametersSetterMethod() {
 		MethodVisitor mv = cv.visitMethod(Opcodes.ACC_PUBLIC, "_asParameter", "(Ljava/lang/String;Ljava/lang/Object;)V", null, null);
+		Label l0 = new Label();
+		Label l1 = new Label();
 		
-		Label start = new Label();
-		Label next = new Label();
-		Label variable = new Label();
-		boolean first = true;
+		mv.visitLabel(l0);
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitVarInsn(Opcodes.ALOAD, 1);
+		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, reflector.getClazzInternalName(), "_asParameterId", "(Ljava/lang/String;)I", false);
+		mv.visitVarInsn(Opcodes.ALOAD, 2);
+		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, reflector.getClazzInternalName(), "_asParameter", "(ILjava/lang/Object;)V", false);
+		mv.visitInsn(Opcodes.RETURN);
 		
+		mv.visitLabel(l1);
+		mv.visitLocalVariable("this", reflector.getClazzDescriptor(), null, l0, l1, 0);
+		mv.visitLocalVariable("name", "Ljava/lang/String;", null, l0, l1, 1);
+		mv.visitLocalVariable("value", "Ljava/lang/Object;", null, l0, l1, 2);
+		mv.visitMaxs(4, 3);
+		mv.visitEnd();
+	}
+	
+	/**
+	 * Creates the code as:
+	 * 
+	 * public void _asParameter(int id, Object value) {
+	 * 	switch(id) {
+	 * 		case 0: setName((String)value); return;
+	 * 		case 1: setDate((Date)value); return;
+	 * 		...
+	 * 	}
+	 * } 
+	 */
+	private void createParametersSetterByIdMethod() {
+		MethodVisitor mv = cv.visitMethod(Opcodes.ACC_PUBLIC, "_asParameter", "(ILjava/lang/Object;)V", null, null);
+		Label l0 = new Label();
+		Label l1 = new Label();
+		Label l2 = new Label();
+		
+		mv.visitLabel(l0);
+		Label labels[] = SwitchGenerator.generateIdSwitch(mv, 1, reflector.getParameters().size(), l1);
+		int id = 0;
 		for(String name: reflector.getParameters().keySet()) {
-			Label l0 = null;
-			Label l1 = new Label();
-			Label l2 = new Label();
-			
-			if(first) {
-				l0 = new Label();
-				first = false;
-			}
-			else {
-				l0 = next;
-				next = new Label();
-			}
-			
-			mv.visitLabel(l0);
-			if(!first)
-				mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
-			mv.visitVarInsn(Opcodes.ALOAD, 1);
-			mv.visitLdcInsn(name);
-			mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/String", "equals", "(Ljava/lang/Object;)Z", false);
-			mv.visitJumpInsn(Opcodes.IFEQ, next);
-			
 			Class<?> parameterType = reflector.getParameters().get(name); 
-			
 			String setterMethodName = reflector.getSetters().get(name).getName();
 			String setterMethodDesc = "("+Type.getDescriptor(parameterType)+")V";
 			
-			mv.visitLabel(l1);
+			mv.visitLabel(labels[id++]);
 			mv.visitVarInsn(Opcodes.ALOAD, 0);
 			mv.visitVarInsn(Opcodes.ALOAD, 2);
-			mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(parameterType));
+			PrimitiveGenerator.cast(mv, parameterType);
 			mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, reflector.getClazzInternalName(), setterMethodName, setterMethodDesc, false);
-			
-			mv.visitLabel(l2);
 			mv.visitInsn(Opcodes.RETURN);
 		}
 		
-		mv.visitLabel(next);
-		mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+		mv.visitLabel(l1);
 		mv.visitInsn(Opcodes.RETURN);
 		
-		mv.visitLabel(variable);
-		mv.visitLocalVariable("this", reflector.getClazzDescriptor(), null, start, next, 0);
-		mv.visitLocalVariable("name", "Ljava/lang/String;", null, start, next, 1);
-		mv.visitLocalVariable("value", "Ljava/lang/Object;", null, start, next, 2);
+		mv.visitLabel(l2);
+		mv.visitLocalVariable("this", reflector.getClazzDescriptor(), null, l0, l2, 0);
+		mv.visitLocalVariable("id", "I", null, l0, l2, 1);
+		mv.visitLocalVariable("value", "Ljava/lang/Object;", null, l0, l2, 2);
 		mv.visitMaxs(2, 3);
 		mv.visitEnd();
 	}
 	
+	/**
+	 * Creates the typed setter of the \@Parameters of the primitive type, as:
+	 * 
+	 * public void _asParameterInt(int id, int value) {
+	 * 	switch(id) {
+	 * 		case 2: setCount(value); return;
+	 * 		...
+	 * 	}
+	 * } 
+	 */
+	private void createParameterPrimitiveSetterMethod(String methodName, Class<?> type) {
+		PrimitiveGenerator.generateSetter(cv, methodName, type, reflector.getClazzInternalName(), reflector.getClazzDescriptor(),
+				reflector.getParameters(), reflector.getSetters());
+	}
+	
 	/**
 	 * public Class<?> _asParameterConverter(String name) {
 	 * 	return _asConverters.get(name);
@@ -583,4 +800,21 @@ public class OControllerClassVisitor extends ClassVisitor {
 		mv.visitMaxs(1, 1);
 		mv.visitEnd();
 	}
+	
+	/**
+	 * Generates the _asScope() method using a constant Scope Enum
+	 * public Scope _asScope() { return Scope.REQUEST; }
+	 */
+	public void createScopeMethod() {
+		MethodVisitor mv = cv.visitMethod(Opcodes.ACC_PUBLIC, "_asScope", "()Lio/syncframework/api/Scope;", null, null);
+		mv.visitCode();
+		Label l0 = new Label();
+		mv.visitLabel(l0);
+		mv.visitFieldInsn(Opcodes.GETSTATIC, "io/syncframework/api/Scope", reflector.getScope().name(), "Lio/syncframework/api/Scope;");
+		mv.visitInsn(Opcodes.ARETURN);
+		Label l1 = new Label();
+		mv.visitLocalVariable("this", Type.getDescriptor(reflector.getClazz()), null, l0, l1, 0);
+		mv.visitMaxs(1, 1);
+		mv.visitEnd();
+	}
 }
@@ -18,6 +18,9 @@ package io.syncframework.optimizer;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -38,6 +41,7 @@ import io.syncframework.api.MessageContext;
 import io.syncframework.api.Parameter;
 import io.syncframework.api.RequestContext;
 import io.syncframework.api.Result;
+import io.syncframework.api.Scope;
 import io.syncframework.api.SessionContext;
 import io.syncframework.api.SessionManager;
 import io.syncframework.util.StringUtils;
@@ -56,6 +60,7 @@ public class OControllerReflector implements Reflector {
 	private String clazzDescriptor;
 	private final Map<String,Method> actions = new LinkedHashMap<String,Method>();
 	private final Map<String,String> actionsType = new LinkedHashMap<String,String>();
+	private final Map<String,Boolean> actionsBlocking = new LinkedHashMap<String,Boolean>();
 	private final Map<String,Class<?>[]> interceptors = new LinkedHashMap<String,Class<?>[]>();
 	private final Map<String,Class<?>> parameters = new LinkedHashMap<String,Class<?>>();
 	private final Map<String,Method> getters = new LinkedHashMap<String,Method>();
@@ -63,6 +68,7 @@ public class OControllerReflector implements Reflector {
 	private final Map<String,Class<?>> converters = new LinkedHashMap<String,Class<?>>();
 	private String url;
 	private SessionManager session;
+	private Scope scope;
 	private String applicationContext;
 	private String cookieContext;
 	private String errorContext;
@@ -93,6 +99,7 @@ public class OControllerReflector implements Reflector {
 		Controller controllerAnnotation = (Controller)annotation;
 		this.url = controllerAnnotation.url();
 		this.session = controllerAnnotation.session();
+		this.scope = controllerAnnotation.scope();
 
 		/*
 		 * Reflecting @Parameter Contexts
@@ -154,8 +161,9 @@ public class OControllerReflector implements Reflector {
 				continue;
 			
 			Class<?> type = field.getType();
-			if(type.isPrimitive()) {
-				throw new ReflectorException("@Parameter "+clazz.getName()+"."+field.getName()+" cannot be defined as primitive");
+			if(type.isPrimitive() && !PrimitiveGenerator.isSupported(type)) {
+				throw new ReflectorException("@Parameter "+clazz.getName()+"."+field.getName()+" cannot be defined as "+type.getName()+
+						"; supported primitives are int, long, double and boolean");
 			}
 			// check for Contexts... we already treated the contexts
 			if(type.equals(ApplicationContext.class) ||
@@ -207,8 +215,19 @@ public class OControllerReflector implements Reflector {
 
 		/*
 		 * Reflecting ACTIONS
+		 * 
+		 * getDeclaredMethods() returns the methods in no particular order, which may change from one run to 
+		 * another; the actions are sorted by name so the same class is always optimized into the same bytes.
 		 */
-		for(Method method: clazz.getDeclaredMethods()) {
+		Method methods[] = clazz.getDeclaredMethods();
+		Arrays.sort(methods, new Comparator<Method>() {
+			@Override
+			public int compare(Method a, Method b) {
+				int c = a.getName().compareTo(b.getName());
+				return c != 0 ? c : a.toString().compareTo(b.toString());
+			}
+		});
+		for(Method method: methods) {
 			if(!method.isAnnotationPresent(Action.class))
 				continue;
 			
@@ -218,6 +237,7 @@ public class OControllerReflector implements Reflector {
 			// Action Content Type (type)...
 			//
 			actionsType.put(method.getName(), a.type());
+			actionsBlocking.put(method.getName(), a.blocking());
 			 
 			// check whether intercepted by @Interceptor classes
 			List<Class<?>> interceptorsOnly = new LinkedList<Class<?>>();
@@ -245,6 +265,36 @@ public class OControllerReflector implements Reflector {
 				log.trace("@Action "+clazz.getName()+"."+method.getName()+"() loaded");
 			}
 		}
+
+		/*
+		 * Reflecting Scope
+		 * 
+		 * Instances reused by other requests shall not keep state of the previous ones: pooled instances have their
+		 * @Parameters and @Contexts reset, while singletons cannot declare them at all.
+		 */
+		if(scope != Scope.REQUEST) {
+			// fields inherited are never bound nor reset
+			for(Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+				for(Field field: c.getDeclaredFields()) {
+					if(field.isSynthetic() || Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers()))
+						continue;
+					if(c == clazz && scope == Scope.POOLED && (parameters.containsKey(field.getName()) || isContext(field.getName())))
+						continue;
+					if(c == clazz && scope == Scope.SINGLETON && field.getName().equals(applicationContext))
+						continue;
+					throw new ReflectorException("@Controller "+clazz.getName()+" declared with scope "+scope+
+							" cannot keep state on field "+c.getName()+"."+field.getName()+
+							"; declare it as final or static, or utilize the scope REQUEST");
+				}
+			}
+			if(log.isTraceEnabled())
+				log.trace("@Controller "+clazz.getName()+" scope "+scope+" loaded");
+		}
+	}
+
+	private boolean isContext(String name) {
+		return name.equals(applicationContext) || name.equals(cookieContext) || name.equals(errorContext) ||
+				name.equals(messageContext) || name.equals(requestContext) || name.equals(sessionContext);
 	}
 
 	public Map<String, Method> getActions() {
@@ -253,6 +303,9 @@ public class OControllerReflector implements Reflector {
 	public Map<String, String> getActionsType() {
 		return actionsType;
 	}
+	public Map<String, Boolean> getActionsBlocking() {
+		return actionsBlocking;
+	}
 	public Map<String, Class<?>[]> getInterceptors() {
 		return interceptors;
 	}
@@ -283,6 +336,12 @@ public class OControllerReflector implements Reflector {
 	public void setSession(SessionManager session) {
 		this.session = session;
 	}
+	public Scope getScope() {
+		return scope;
+	}
+	public void setScope(Scope scope) {
+		this.scope = scope;
+	}
 	public String getUrl() {
 		return url;
 	}
@@ -78,14 +78,14 @@ public class OControllerStaticMethodVisitor extends MethodVisitor {
 		}
 		/*
 		 * _asActions.put("main", true);
-		 * _asActions.put("action1", true);
+		 * _asActions.put("action1", false); // @Action(blocking=false)
 		 */
 		for(String name: reflector.getActions().keySet()) {
 			Label l = new Label();
 			mv.visitLabel(l);
 			mv.visitFieldInsn(Opcodes.GETSTATIC, reflector.getClazzInternalName(), "_asActions", "Ljava/util/Map;");
 			mv.visitLdcInsn(name);
-			mv.visitInsn(Opcodes.ICONST_1);
+			mv.visitInsn(reflector.getActionsBlocking().get(name) ? Opcodes.ICONST_1 : Opcodes.ICONST_0);
 			mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Boolean", "valueOf", "(Z)Ljava/lang/Boolean;", false);
 			mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, "java/util/Map", "put", "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", true);
 			mv.visitInsn(Opcodes.POP);
@@ -191,7 +191,7 @@ public class OControllerStaticMethodVisitor extends MethodVisitor {
 			mv.visitLabel(l);
 			mv.visitFieldInsn(Opcodes.GETSTATIC, reflector.getClazzInternalName(), "_asParameters", "Ljava/util/Map;");
 			mv.visitLdcInsn(name);
-			mv.visitLdcInsn(Type.getType(reflector.getParameters().get(name)));
+			PrimitiveGenerator.pushClass(mv, reflector.getParameters().get(name));
 			mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, "java/util/Map", "put", "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", true);
 			mv.visitInsn(Opcodes.POP);
 		}
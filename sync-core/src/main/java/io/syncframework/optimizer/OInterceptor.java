@@ -40,15 +40,28 @@ public interface OInterceptor {
 	 * @return Map with \@Parameters name as key and Class<?> as value
 	 */
 	public Map<String, Class<?>> _asParameters();
+	/**
+	 * @return id of the \@Parameter, utilized by the getter and setter by id; -1 if not declared
+	 */
+	public int _asParameterId(String name);
 	/**
 	 * \@Parameter getter representation.
 	 * @return object.
 	 */
 	public Object _asParameter(String name);
+	public Object _asParameter(int id);
 	/**
 	 * \@Parameter setter representation.
 	 */
 	public void _asParameter(String name, Object value);
+	public void _asParameter(int id, Object value);
+	/**
+	 * \@Parameter setters of the primitive types, without boxing; ids of \@Parameters of other types are ignored.
+	 */
+	public void _asParameterInt(int id, int value);
+	public void _asParameterLong(int id, long value);
+	public void _asParameterDouble(int id, double value);
+	public void _asParameterBoolean(int id, boolean value);
 	/**
 	 * @return \@Converter class defined in the \@Parameter annotation. Returns null if there is no converter
 	 */
@@ -62,4 +75,17 @@ public interface OInterceptor {
 	public void _asMessageContext(MessageContext messages);
 	public void _asRequestContext(RequestContext request);
 	public void _asSessionContext(SessionContext session);
+	/**
+	 * @return new instance of the \@Interceptor, created without Java Reflection
+	 */
+	public OInterceptor _asNewInstance();
+	/**
+	 * Resets the \@Parameters and \@Contexts, so the instance may handle another request
+	 */
+	public void _asReset();
+	/**
+	 * @return true if the instances may be reset and reused by other requests; false if the \@Interceptor keeps
+	 * state on other fields, a new instance handling each request
+	 */
+	public boolean _asPoolable();
 }
@@ -18,6 +18,7 @@ package io.syncframework.optimizer;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -64,6 +65,8 @@ public class OInterceptorReflector implements Reflector {
 	private String messageContext;
 	private String requestContext;
 	private String sessionContext;
+	// field keeping state across requests, preventing the pooling of the instances
+	private String stateField;
 
 	public OInterceptorReflector(Class<?> clazz) {
 		this.clazz = clazz;
@@ -138,8 +141,9 @@ public class OInterceptorReflector implements Reflector {
 				continue;
 
 			Class<?> type = field.getType();
-			if(type.isPrimitive()) {
-				throw new ReflectorException("@Parameter "+clazz.getName()+"."+field.getName()+" cannot be defined as primitive");
+			if(type.isPrimitive() && !PrimitiveGenerator.isSupported(type)) {
+				throw new ReflectorException("@Parameter "+clazz.getName()+"."+field.getName()+" cannot be defined as "+type.getName()+
+						"; supported primitives are int, long, double and boolean");
 			}
 			
 			// check for Contexts... we already treated the contexts
@@ -239,6 +243,45 @@ public class OInterceptorReflector implements Reflector {
 		catch(NoSuchMethodException ignore) {
 			throw new ReflectorException("@Interceptor "+clazz.getName()+".before() not defined");
 		}
+
+		/*
+		 * Instances are pooled and reused by other requests, having only their @Parameters and @Contexts reset:
+		 * any other field, declared or inherited, would carry state from one request to another.
+		 */
+		stateField = findStateField();
+		if(stateField != null && log.isWarnEnabled()) {
+			log.warn("@Interceptor {} keeps state on field {}; a new instance handles each request instead of pooled ones",
+					clazz.getName(), stateField);
+		}
+	}
+
+	/**
+	 * @return first field, as Class.field, neither final nor static that is not reset between requests; null if none
+	 */
+	private String findStateField() {
+		for(Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+			for(Field field: c.getDeclaredFields()) {
+				if(field.isSynthetic() || Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers()))
+					continue;
+				// only the @Parameters and @Contexts declared by the class itself are bound and reset
+				if(c == clazz && (parameters.containsKey(field.getName()) || isContext(field.getName())))
+					continue;
+				return c.getName()+"."+field.getName();
+			}
+		}
+		return null;
+	}
+
+	private boolean isContext(String name) {
+		return name.equals(applicationContext) || name.equals(cookieContext) || name.equals(errorContext) ||
+				name.equals(messageContext) || name.equals(requestContext) || name.equals(sessionContext);
+	}
+	
+	/**
+	 * @return true if the instances may be reset and reused by other requests
+	 */
+	public boolean isPoolable() {
+		return stateField == null;
 	}
 	
 	public Method getAfter() {
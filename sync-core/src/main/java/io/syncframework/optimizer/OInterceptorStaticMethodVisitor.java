@@ -80,7 +80,7 @@ public class OInterceptorStaticMethodVisitor extends MethodVisitor {
 			mv.visitLabel(l);
 			mv.visitFieldInsn(Opcodes.GETSTATIC, reflector.getClazzInternalName(), "_asParameters", "Ljava/util/Map;");
 			mv.visitLdcInsn(name);
-			mv.visitLdcInsn(Type.getType(reflector.getParameters().get(name)));
+			PrimitiveGenerator.pushClass(mv, reflector.getParameters().get(name));
 			mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, "java/util/Map", "put", "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", true);
 			mv.visitInsn(Opcodes.POP);
 		}
@@ -16,37 +16,168 @@
 package io.syncframework.optimizer;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FilenameFilter;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Pattern;
 
+import org.objectweb.asm.ClassReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.syncframework.core.Application;
 import io.syncframework.core.ApplicationClassLoader;
+import io.syncframework.core.ApplicationConfig;
 import io.syncframework.util.FileUtils;
 
 /**
  * This class is responsible for compilation of the classes over the ClassesDirectory, 
  * creating a optimized version under the application's WorkDirectory 
  * 
+ * Class files are independent of each other, so they are copied, loaded and optimized in parallel by a 
+ * ForkJoinPool. Failures are reported in the order of the class files paths, regardless of the order the 
+ * tasks completed.
+ * 
+ * The WorkDirectory is kept across restarts along with a manifest of the version of each file it holds: 
+ * files unchanged are left untouched. Classes changed are looked up in the {@link OptimizerCache} by the hash 
+ * of their contents before being optimized again.
+ * 
  * @author dfroz
  * 
  */
 public class Optimizer {
 	private static final Logger log = LoggerFactory.getLogger(Optimizer.class);
-	private final List<ClassFile> classFiles = new LinkedList<ClassFile>();
-	private Application application;
+	// relative path and version of each file of the WorkDirectory
+	public static final String MANIFEST = ".optimizer";
+	private static final String MARKER = ".optimized";
+	private static final String MARKER_VERSION = "optimizer.version";
+	private final List<ClassFile> classFiles = new ArrayList<ClassFile>();
+	private final Properties manifest = new Properties();
+	private Properties previous;
+	private final String name;
+	private final File classesDirectory;
+	private final List<File> libraries;
+	private final File workDirectory;
+	private final File cacheDirectory;
+	private final ClassLoader parent;
+	private OptimizerCache cache;
+	// class name, super class name and interfaces names of each class
+	private final List<String> hierarchy = new ArrayList<String>();
+	private final ClassIndex index = new ClassIndex();
+	// nanoseconds spent by each phase, summed across the threads
+	private final LongAdder copyTime = new LongAdder();
+	private final LongAdder loadTime = new LongAdder();
+	private final LongAdder optimizeTime = new LongAdder();
+	private final LongAdder writeTime = new LongAdder();
+	private final AtomicInteger optimized = new AtomicInteger();
+	private int unchanged;
 	
 	public Optimizer(Application application) {
-		this.application = application;
+		ApplicationConfig config = application.getConfig();
+		this.name = application.toString();
+		this.classesDirectory = config.getClassesDirectory();
+		this.libraries = libraries(config.getLibDirectory());
+		this.workDirectory = config.getWorkDirectory();
+		this.cacheDirectory = config.getCacheDirectory();
+		this.parent = application.getClassLoader();
+	}
+	
+	/**
+	 * Optimizer utilized outside of the server, such as by the build of the application.
+	 * 
+	 * @param name of the application, for logging purposes
+	 * @param libraries jar files the classes depend on, besides the ones loaded by the parent ClassLoader
+	 * @param parent ClassLoader of the SYNC Framework classes
+	 */
+	public Optimizer(String name, File classesDirectory, List<File> libraries, File workDirectory, File cacheDirectory, 
+			ClassLoader parent) {
+		this.name = name;
+		this.classesDirectory = classesDirectory;
+		this.libraries = libraries;
+		this.workDirectory = workDirectory;
+		this.cacheDirectory = cacheDirectory;
+		this.parent = parent;
+	}
+	
+	/**
+	 * @return true if the WorkDirectory holds classes optimized by this version of the Optimizer, 
+	 * marked by {@link #mark(File)}. Such classes are not checked against the ClassesDirectory.
+	 */
+	public static boolean isOptimized(File workDirectory) {
+		File file = new File(workDirectory, MARKER);
+		if(!file.exists())
+			return false;
+		Properties properties = new Properties();
+		FileInputStream fis = null;
+		try {
+			fis = new FileInputStream(file);
+			properties.load(fis);
+		}
+		catch(IOException e) {
+			log.warn("failed to read {}: {}", file, e.toString());
+			return false;
+		}
+		finally {
+			if(fis != null)
+				try { fis.close(); } catch(Exception ignore) {}
+		}
+		String version = OptimizerCache.getVersion();
+		if(!version.equals(properties.getProperty(MARKER_VERSION))) {
+			log.warn("{} created by a different version of the optimizer: {}; expected: {}", 
+					file, properties.getProperty(MARKER_VERSION), version);
+			return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Marks the WorkDirectory as holding the classes optimized by this version of the Optimizer. 
+	 * Servers finding the mark load the classes as they are, without running the Optimizer.
+	 */
+	public static void mark(File workDirectory) throws IOException {
+		Properties properties = new Properties();
+		properties.setProperty(MARKER_VERSION, OptimizerCache.getVersion());
+		FileOutputStream fos = new FileOutputStream(new File(workDirectory, MARKER));
+		try { properties.store(fos, null); }
+		finally {
+			try { fos.close(); } catch(Exception ignore) {}
+		}
+	}
+	
+	private static List<File> libraries(File libDirectory) {
+		File jars[] = libDirectory.listFiles(new FilenameFilter() {
+			public boolean accept(File dir, String name) {
+				if(name.endsWith(".jar"))
+					return true;
+				return false;
+			}
+		});
+		List<File> libraries = new ArrayList<File>();
+		if(jars != null)
+			Collections.addAll(libraries, jars);
+		return libraries;
 	}
 
 	/**
@@ -57,24 +188,54 @@ public class Optimizer {
 	 * No Reflection API will be utilized during Runtime. Therefore we shall expect performance improvement optimizing this classes.
 	 * 
 	 * Files are not loaded directly into memory to facilitate low memory foot-print; avoiding two different versions
-	 * of the same class into memory.
+	 * of the same class into memory. Classes not found by the {@link ClassIndex} are not loaded at all.
 	 * 
 	 * @param classFile represents the class file
 	 * @throws Exception
 	 */
-	private void doOptimize(ClassFile classFile) throws Exception {		
-		ClassOptimizer optimizer = new ClassOptimizer();
-		byte b[] = optimizer.optimize(classFile.getClazz());
-		if(b == null)
-			return;
+	private void doOptimize(ClassFile classFile) throws Exception {
+		File workFile = new File(workDirectory, classFile.getRelativePath());
 		
-		File file = new File(application.getConfig().getWorkDirectory(), classFile.getRelativePath());
-		FileOutputStream fos = new FileOutputStream(file);
-		fos.write(b);
-		try { fos.close(); } catch(Exception ignore) {}
+		long time = System.nanoTime();
+		byte b[] = cache.get(classFile.getKey());
+		if(b == null && index.contains(classFile.getClazzName())) {
+			ClassLoader cl = Thread.currentThread().getContextClassLoader();
+			classFile.setClazz(cl.loadClass(classFile.getClazzName()));
+			
+			long now = System.nanoTime();
+			loadTime.add(now - time);
+			time = now;
+			ClassOptimizer optimizer = new ClassOptimizer();
+			b = optimizer.optimize(classFile.getClazz());
+			cache.put(classFile.getKey(), b);
+			optimizeTime.add(System.nanoTime() - time);
+			if(b != null) {
+				optimized.incrementAndGet();
+				if(log.isTraceEnabled())
+					log.trace("{} created optimized version of class {}", name, classFile.getClazzName());
+			}
+		}
+		else if(b == null) {
+			// neither loaded nor optimized; utilized as it is
+			cache.put(classFile.getKey(), b);
+		}
+		else {
+			copyTime.add(System.nanoTime() - time);
+			if(log.isTraceEnabled())
+				log.trace("{} found optimized version of class {} in cache", name, classFile.getClazzName());
+		}
 		
-		if(log.isTraceEnabled())
-			log.trace("{} created optimized version of class {}", application, classFile.getClazz().getName());
+		// classes not optimized are utilized as they are
+		if(b == null || b.length == 0)
+			b = classFile.getBytes();
+		time = System.nanoTime();
+		workFile.getParentFile().mkdirs();
+		FileOutputStream fos = new FileOutputStream(workFile);
+		try { fos.write(b); }
+		finally {
+			try { fos.close(); } catch(Exception ignore) {}
+		}
+		writeTime.add(System.nanoTime() - time);
 	}
 
 	private void scanClassesDirectory(File file) throws Exception {
@@ -86,7 +247,7 @@ public class Optimizer {
 				continue;
 			}
 			
-			String relativePath = FileUtils.getRelativePath(f, application.getConfig().getClassesDirectory());
+			String relativePath = FileUtils.getRelativePath(f, classesDirectory);
 			if(f.getName().endsWith(".class")) {
 				String clazzName = relativePath;
 				int p = clazzName.indexOf(".class");
@@ -96,14 +257,117 @@ public class Optimizer {
 				String pattern = Pattern.quote(File.separator);
 				clazzName = clazzName.replaceAll(pattern, ".");
 				
-				ClassLoader cl = Thread.currentThread().getContextClassLoader();
-				Class<?> clazz = cl.loadClass(clazzName);
-				classFiles.add(new ClassFile(clazz, clazzName, relativePath));
+				byte b[] = Files.readAllBytes(f.toPath());
+				try {
+					ClassReader cr = new ClassReader(b);
+					StringBuilder sb = new StringBuilder();
+					sb.append(cr.getClassName()).append(':').append(cr.getSuperName());
+					for(String i: cr.getInterfaces())
+						sb.append(',').append(i);
+					hierarchy.add(sb.toString());
+					index.add(cr);
+				}
+				catch(IllegalArgumentException e) {
+					// class file version not supported by ASM; neither indexed nor optimized
+					log.warn("{} failed to read class file {}; utilizing it as it is: {}", name, relativePath, e.toString());
+				}
+				
+				// copied, loaded and optimized later on, in parallel
+				classFiles.add(new ClassFile(f, clazzName, relativePath, b));
+				continue;
 			}
 			
-			// copy file to the work directory
-			File workFile = new File(application.getConfig().getWorkDirectory(), relativePath);
+			// copy file to the work directory, unless unchanged
+			String version = f.length() + ":" + f.lastModified();
+			manifest.setProperty(relativePath, version);
+			File workFile = new File(workDirectory, relativePath);
+			if(previous != null && version.equals(previous.getProperty(relativePath)) && workFile.exists())
+				continue;
+			long time = System.nanoTime();
 			FileUtils.copyTo(f, workFile);
+			copyTime.add(System.nanoTime() - time);
+		}
+	}
+
+	/**
+	 * @return digest of what the optimization of each class depends on besides the class itself: the class
+	 * hierarchy, utilized to compute the stack map frames, and the libraries.
+	 */
+	private byte[] dependencies() {
+		List<String> entries = new ArrayList<String>(hierarchy);
+		Collections.sort(entries);
+		List<String> libs = new ArrayList<String>();
+		for(File jar: libraries)
+			libs.add(jar.getName() + ":" + jar.length() + ":" + jar.lastModified());
+		Collections.sort(libs);
+		entries.addAll(libs);
+		
+		MessageDigest md = OptimizerCache.newDigest();
+		for(String entry: entries) {
+			md.update(entry.getBytes(StandardCharsets.UTF_8));
+			md.update((byte)'\n');
+		}
+		return md.digest();
+	}
+
+	/**
+	 * Loads the manifest of the WorkDirectory; with no manifest, the directory is recreated.
+	 */
+	private void loadManifest() {
+		File file = new File(workDirectory, MANIFEST);
+		if(file.exists()) {
+			Properties properties = new Properties();
+			FileInputStream fis = null;
+			try {
+				fis = new FileInputStream(file);
+				properties.load(fis);
+				previous = properties;
+			}
+			catch(IOException e) {
+				log.warn("{} failed to read manifest {}: {}", name, file, e.toString());
+			}
+			finally {
+				if(fis != null)
+					try { fis.close(); } catch(Exception ignore) {}
+			}
+		}
+		if(previous == null) {
+			// recreating the WorkDirectory
+			if(workDirectory.exists())
+				FileUtils.delete(workDirectory);
+			workDirectory.mkdirs();
+		}
+		// until written again, the files of the WorkDirectory are not known to be complete
+		file.delete();
+		new File(workDirectory, MARKER).delete();
+	}
+
+	private void saveManifest() throws IOException {
+		File file = new File(workDirectory, MANIFEST);
+		File tmp = new File(workDirectory, MANIFEST + ".tmp");
+		FileOutputStream fos = new FileOutputStream(tmp);
+		try { manifest.store(fos, null); }
+		finally {
+			try { fos.close(); } catch(Exception ignore) {}
+		}
+		Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Removes the files of the WorkDirectory no longer found under the ClassesDirectory.
+	 */
+	private void removeStaleFiles(File dir) {
+		for(File f: dir.listFiles()) {
+			if(f.isDirectory()) {
+				removeStaleFiles(f);
+				continue;
+			}
+			String relativePath = FileUtils.getRelativePath(f, workDirectory);
+			if(relativePath.equals(MANIFEST) || relativePath.equals(ClassIndex.FILENAME) || manifest.containsKey(relativePath))
+				continue;
+			if(log.isTraceEnabled())
+				log.trace("{} removing stale file {}", name, relativePath);
+			f.delete();
 		}
 	}
 
@@ -115,28 +379,21 @@ public class Optimizer {
 	 * @throws Exception
 	 */
 	public void optimize() throws Exception {
-		
-		// recreating the WorkDirectory
-		FileUtils.delete(application.getConfig().getWorkDirectory());
+		long started = System.nanoTime();
+		loadManifest();
+		cache = new OptimizerCache(cacheDirectory);
 		
 		//
 		// first step is to create the ClassLoader from the WorkDirectory
 		//
 		ArrayList<URL> urls = new ArrayList<URL>();
 		try {
-			urls.add(application.getConfig().getClassesDirectory().toURI().toURL());
+			urls.add(classesDirectory.toURI().toURL());
 		} catch (MalformedURLException e1) {
 			throw new RuntimeException(e1);
 		}
 		
-		File jars[] = application.getConfig().getLibDirectory().listFiles(new FilenameFilter() {
-			public boolean accept(File dir, String name) {
-				if(name.endsWith(".jar"))
-					return true;
-				return false;
-			}
-		});
-		for(File jar: jars) {
+		for(File jar: libraries) {
 			try {
 				urls.add(jar.toURI().toURL());
 			} catch (MalformedURLException e) {
@@ -144,32 +401,107 @@ public class Optimizer {
 			}
 		}
 		
-		ApplicationClassLoader classLoader = new ApplicationClassLoader(urls, application.getClassLoader());
+		final ApplicationClassLoader classLoader = new ApplicationClassLoader(urls, parent);
 		Thread.currentThread().setContextClassLoader(classLoader);
 		
 		if(log.isTraceEnabled())
-			log.trace("{} optimizing classes with ClassLoader: [{}]", application, classLoader);
+			log.trace("{} optimizing classes with ClassLoader: [{}]", name, classLoader);
 		
 		// scan classes from the classes/
-		scanClassesDirectory(application.getConfig().getClassesDirectory());
+		scanClassesDirectory(classesDirectory);
+		Collections.sort(classFiles, new Comparator<ClassFile>() {
+			@Override
+			public int compare(ClassFile a, ClassFile b) {
+				return a.getRelativePath().compareTo(b.getRelativePath());
+			}
+		});
 		
+		// classes unchanged since the last run are left as they are
+		byte dependencies[] = dependencies();
+		List<ClassFile> changed = new ArrayList<ClassFile>();
 		for(ClassFile file: classFiles) {
+			file.setKey(cache.key(dependencies, file.getBytes()));
+			manifest.setProperty(file.getRelativePath(), file.getKey());
+			if(previous != null && file.getKey().equals(previous.getProperty(file.getRelativePath())) && 
+					new File(workDirectory, file.getRelativePath()).exists()) {
+				unchanged++;
+				continue;
+			}
+			changed.add(file);
+		}
+		long scanned = System.nanoTime();
+		
+		// the workers load the classes with the application's ClassLoader, as the calling thread does
+		ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), new ForkJoinWorkerThreadFactory() {
+			@Override
+			public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+				ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+				thread.setName("optimizer-"+thread.getPoolIndex());
+				thread.setContextClassLoader(classLoader);
+				return thread;
+			}
+		}, null, false);
+		List<Future<Void>> futures;
+		try {
+			List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(changed.size());
+			for(final ClassFile file: changed) {
+				tasks.add(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						doOptimize(file);
+						return null;
+					}
+				});
+			}
+			futures = pool.invokeAll(tasks);
+		}
+		finally {
+			pool.shutdown();
+			Thread.currentThread().setContextClassLoader(classLoader.getParent());
+		}
+		
+		// failures reported in the order of the class files
+		Throwable failure = null;
+		for(int i = 0; i < futures.size(); i++) {
 			try {
-				doOptimize(file);
+				futures.get(i).get();
 			}
-			catch(ClassNotFoundException e) {
-				log.error("failed to process class file: {} ", file, e);
-				throw new InvocationTargetException(e);
+			catch(ExecutionException e) {
+				log.error("failed to process class file: {} ", changed.get(i).getRelativePath(), e.getCause());
+				if(failure == null)
+					failure = e.getCause();
 			}
 		}
+		if(failure instanceof ClassNotFoundException)
+			throw new InvocationTargetException(failure);
+		if(failure instanceof Exception)
+			throw (Exception)failure;
+		if(failure instanceof Error)
+			throw (Error)failure;
+		
+		index.write(workDirectory);
+		removeStaleFiles(workDirectory);
+		saveManifest();
+		cache.prune();
+		
+		if(log.isInfoEnabled()) {
+			log.info("{} processed {} classes in {} ms: {} unchanged; {} from cache; {} optimized; scan: {} ms; "+
+					"copy: {} ms; load: {} ms; optimize: {} ms; write: {} ms (copy, load, optimize and write summed across {} threads)", 
+					name, classFiles.size(), millis(System.nanoTime() - started), unchanged, cache.getHits(), 
+					optimized.get(), millis(scanned - started), millis(copyTime.sum()), millis(loadTime.sum()), 
+					millis(optimizeTime.sum()), millis(writeTime.sum()), pool.getParallelism());
+		}
 		
-		Thread.currentThread().setContextClassLoader(classLoader.getParent());
-		classLoader = null;
+		classFiles.clear();
 		
 		// this shall destroy the ClassesDirectory based ClassLoader
 		System.gc();
 	}
 	
+	private static long millis(long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+	
 	@Override
 	public void finalize() {
 		if(log.isTraceEnabled())
@@ -178,14 +510,42 @@ public class Optimizer {
 }
 
 class ClassFile {
+	private File file;
+	private byte bytes[];
+	private String key;
 	private Class<?> clazz;
 	private String clazzName;
 	private String relativePath;
 	
-	public ClassFile(Class<?> clazz, String clazzName, String relativePath) {
-		this.clazz = clazz;
+	public ClassFile(File file, String clazzName, String relativePath, byte bytes[]) {
+		this.file = file;
 		this.clazzName = clazzName;
 		this.relativePath = relativePath;
+		this.bytes = bytes;
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	public void setFile(File file) {
+		this.file = file;
+	}
+
+	public byte[] getBytes() {
+		return bytes;
+	}
+
+	public void setBytes(byte[] bytes) {
+		this.bytes = bytes;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public void setKey(String key) {
+		this.key = key;
 	}
 
 	public Class<?> getClazz() {
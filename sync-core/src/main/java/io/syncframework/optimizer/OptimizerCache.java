@@ -0,0 +1,234 @@
+/*
+ * Copyright 2016 SyncObjects Ltda.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syncframework.optimizer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Content addressed store of the optimized classes. Each class is kept by a key hashing the bytes of the
+ * original class, the bytecode of the optimizer itself and the dependencies of the optimization given by the
+ * caller, so classes unchanged since they were last optimized are neither loaded nor optimized again.
+ *
+ * Entries hold the optimized bytes; classes that are not \@Controllers, \@Interceptors or \@Initializers are
+ * kept as empty entries, meaning the original class is utilized as is.
+ *
+ * Entries are written to a temporary file and moved into place, so the directory may be shared by servers
+ * running the same application. Entries not utilized for {@value #RETENTION_DAYS} days are removed by
+ * {@link #prune()}.
+ *
+ * @author dfroz
+ */
+public class OptimizerCache {
+	private static final Logger log = LoggerFactory.getLogger(OptimizerCache.class);
+	private static final int RETENTION_DAYS = 7;
+	private static final String ALGORITHM = "SHA-256";
+	// classes whose bytecode determines the optimized classes
+	private static final String OPTIMIZER_RESOURCES[] = {
+		"io/syncframework/optimizer/ClassIndex.class",
+		"io/syncframework/optimizer/ClassOptimizer.class",
+		"io/syncframework/optimizer/OControllerClassVisitor.class",
+		"io/syncframework/optimizer/OControllerReflector.class",
+		"io/syncframework/optimizer/OControllerStaticMethodVisitor.class",
+		"io/syncframework/optimizer/OInitializerClassVisitor.class",
+		"io/syncframework/optimizer/OInitializerReflector.class",
+		"io/syncframework/optimizer/OInterceptorClassVisitor.class",
+		"io/syncframework/optimizer/OInterceptorReflector.class",
+		"io/syncframework/optimizer/OInterceptorStaticMethodVisitor.class",
+		"io/syncframework/optimizer/PrimitiveGenerator.class",
+		"io/syncframework/optimizer/SwitchGenerator.class",
+		"org/objectweb/asm/ClassWriter.class",
+		"org/objectweb/asm/MethodWriter.class",
+		"org/objectweb/asm/Frame.class"
+	};
+	private static volatile byte version[];
+	private final File directory;
+	private final Set<String> used = ConcurrentHashMap.newKeySet();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	public OptimizerCache(File directory) {
+		this.directory = new File(directory, "optimizer");
+	}
+
+	/**
+	 * @param dependencies digest of everything else the optimization of the class depends on
+	 * @return key of the class
+	 */
+	public String key(byte dependencies[], byte clazz[]) {
+		MessageDigest md = newDigest();
+		md.update(version());
+		md.update(dependencies);
+		md.update(clazz);
+		return toHex(md.digest());
+	}
+
+	/**
+	 * @return bytes of the optimized class; empty if the class is utilized as is; null if not cached.
+	 */
+	public byte[] get(String key) {
+		File file = file(key);
+		try {
+			byte b[] = Files.readAllBytes(file.toPath());
+			used.add(key);
+			hits.increment();
+			// keeps the entry from being pruned
+			file.setLastModified(System.currentTimeMillis());
+			return b;
+		}
+		catch(NoSuchFileException e) {
+			misses.increment();
+			return null;
+		}
+		catch(IOException e) {
+			log.warn("failed to read optimized class {}: {}", file, e.toString());
+			misses.increment();
+			return null;
+		}
+	}
+
+	/**
+	 * @param b bytes of the optimized class; null or empty if the class is utilized as is.
+	 */
+	public void put(String key, byte b[]) {
+		File file = file(key);
+		used.add(key);
+		File tmp = null;
+		try {
+			file.getParentFile().mkdirs();
+			tmp = File.createTempFile(key, ".tmp", file.getParentFile());
+			Files.write(tmp.toPath(), b != null ? b : new byte[0]);
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch(IOException e) {
+			// the cache is only an optimization
+			log.warn("failed to cache optimized class {}: {}", file, e.toString());
+			if(tmp != null)
+				tmp.delete();
+		}
+	}
+
+	/**
+	 * Removes the entries neither utilized by this run nor by any other for the retention period.
+	 */
+	public void prune() {
+		File dirs[] = directory.listFiles();
+		if(dirs == null)
+			return;
+		long limit = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(RETENTION_DAYS);
+		int removed = 0;
+		for(File dir: dirs) {
+			File files[] = dir.listFiles();
+			if(files == null)
+				continue;
+			for(File file: files) {
+				String name = file.getName();
+				String key = name.endsWith(".class") ? name.substring(0, name.length() - ".class".length()) : name;
+				if(!used.contains(key) && file.lastModified() < limit && file.delete())
+					removed++;
+			}
+		}
+		if(removed > 0 && log.isDebugEnabled())
+			log.debug("{} entries not utilized for {} days removed from {}", removed, RETENTION_DAYS, directory);
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	private File file(String key) {
+		return new File(new File(directory, key.substring(0, 2)), key + ".class");
+	}
+
+	/**
+	 * @return hexadecimal digest of the optimizer bytecode and version
+	 */
+	static String getVersion() {
+		return toHex(version());
+	}
+
+	/**
+	 * @return digest of the optimizer bytecode and version
+	 */
+	private static byte[] version() {
+		if(version != null)
+			return version;
+		MessageDigest md = newDigest();
+		String implementation = OptimizerCache.class.getPackage().getImplementationVersion();
+		if(implementation != null)
+			md.update(implementation.getBytes(StandardCharsets.UTF_8));
+		ClassLoader cl = OptimizerCache.class.getClassLoader();
+		byte buffer[] = new byte[8192];
+		for(String resource: OPTIMIZER_RESOURCES) {
+			InputStream is = cl.getResourceAsStream(resource);
+			if(is == null)
+				throw new IllegalStateException("optimizer class "+resource+" not found");
+			try {
+				for(int n = is.read(buffer); n != -1; n = is.read(buffer))
+					md.update(buffer, 0, n);
+			}
+			catch(IOException e) {
+				throw new IllegalStateException("failed to read optimizer class "+resource, e);
+			}
+			finally {
+				try { is.close(); } catch(Exception ignore) {}
+			}
+		}
+		version = md.digest();
+		return version;
+	}
+
+	static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(ALGORITHM);
+		}
+		catch(NoSuchAlgorithmException e) {
+			throw new Error(e);
+		}
+	}
+
+	private static String toHex(byte b[]) {
+		StringBuilder sb = new StringBuilder(b.length * 2);
+		for(int i = 0; i < b.length; i++) {
+			sb.append(Character.forDigit((b[i] >> 4) & 0xf, 16));
+			sb.append(Character.forDigit(b[i] & 0xf, 16));
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public String toString() {
+		return "hits: " + hits.sum() + "; misses: " + misses.sum();
+	}
+}
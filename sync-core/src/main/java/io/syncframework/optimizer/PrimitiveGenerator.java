@@ -0,0 +1,177 @@
+/*
+ * Copyright 2016 SyncObjects Ltda.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syncframework.optimizer;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Generates the code handling \@Parameters of the primitive types int, long, double and boolean.
+ *
+ * The generic getters and setters box and unbox the values, a null value setting the default value of the
+ * type. The typed setters _asParameterInt(), _asParameterLong(), ... pass the values as they are.
+ *
+ * @author dfroz
+ */
+class PrimitiveGenerator {
+	static boolean isSupported(Class<?> type) {
+		return type == int.class || type == long.class || type == double.class || type == boolean.class;
+	}
+
+	/**
+	 * Pushes the Class of the type: int.class is compiled as Integer.TYPE
+	 */
+	static void pushClass(MethodVisitor mv, Class<?> type) {
+		if(type.isPrimitive())
+			mv.visitFieldInsn(Opcodes.GETSTATIC, Type.getInternalName(wrapper(type)), "TYPE", "Ljava/lang/Class;");
+		else
+			mv.visitLdcInsn(Type.getType(type));
+	}
+
+	/**
+	 * Boxes the value on the stack; values of reference types are left as they are.
+	 */
+	static void box(MethodVisitor mv, Class<?> type) {
+		if(!type.isPrimitive())
+			return;
+		Class<?> wrapper = wrapper(type);
+		mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(wrapper), "valueOf",
+				"("+Type.getDescriptor(type)+")"+Type.getDescriptor(wrapper), false);
+	}
+
+	/**
+	 * Casts the Object on the stack to the type. Primitive types are unboxed from any Number (or Boolean),
+	 * null being unboxed to the default value of the type.
+	 */
+	static void cast(MethodVisitor mv, Class<?> type) {
+		if(!type.isPrimitive()) {
+			mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(type));
+			return;
+		}
+		Label nonnull = new Label();
+		Label end = new Label();
+		mv.visitInsn(Opcodes.DUP);
+		mv.visitJumpInsn(Opcodes.IFNONNULL, nonnull);
+		mv.visitInsn(Opcodes.POP);
+		pushDefault(mv, type);
+		mv.visitJumpInsn(Opcodes.GOTO, end);
+		mv.visitLabel(nonnull);
+		if(type == boolean.class) {
+			mv.visitTypeInsn(Opcodes.CHECKCAST, "java/lang/Boolean");
+			mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/Boolean", "booleanValue", "()Z", false);
+		}
+		else {
+			mv.visitTypeInsn(Opcodes.CHECKCAST, "java/lang/Number");
+			mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/Number", type.getName()+"Value",
+					"()"+Type.getDescriptor(type), false);
+		}
+		mv.visitLabel(end);
+	}
+
+	/**
+	 * Pushes the default value of the type: 0, false or null
+	 */
+	static void pushDefault(MethodVisitor mv, Class<?> type) {
+		if(type == long.class)
+			mv.visitInsn(Opcodes.LCONST_0);
+		else if(type == double.class)
+			mv.visitInsn(Opcodes.DCONST_0);
+		else if(type.isPrimitive())
+			mv.visitInsn(Opcodes.ICONST_0);
+		else
+			mv.visitInsn(Opcodes.ACONST_NULL);
+	}
+
+	/**
+	 * Generates the typed setter of the \@Parameters of the primitive type, as:
+	 *
+	 * public void _asParameterInt(int id, int value) {
+	 * 	switch(id) {
+	 * 		case 2: setCount(value); return;
+	 * 		case 5: setLimit(value); return;
+	 * 	}
+	 * }
+	 */
+	static void generateSetter(ClassVisitor cv, String methodName, Class<?> type, String clazzInternalName,
+			String clazzDescriptor, Map<String,Class<?>> parameters, Map<String,Method> setters)
+	{
+		String descriptor = Type.getDescriptor(type);
+		MethodVisitor mv = cv.visitMethod(Opcodes.ACC_PUBLIC, methodName, "(I"+descriptor+")V", null, null);
+		Label l0 = new Label();
+		Label l1 = new Label();
+		Label l2 = new Label();
+
+		mv.visitLabel(l0);
+		// ids of the other types jump straight to the default label
+		Label labels[] = new Label[parameters.size()];
+		boolean found = false;
+		int id = 0;
+		for(Class<?> parameterType: parameters.values()) {
+			if(parameterType == type) {
+				labels[id] = new Label();
+				found = true;
+			}
+			else {
+				labels[id] = l1;
+			}
+			id++;
+		}
+		if(found) {
+			mv.visitVarInsn(Opcodes.ILOAD, 1);
+			mv.visitTableSwitchInsn(0, labels.length - 1, l1, labels);
+			id = 0;
+			for(String name: parameters.keySet()) {
+				if(parameters.get(name) == type) {
+					mv.visitLabel(labels[id]);
+					mv.visitVarInsn(Opcodes.ALOAD, 0);
+					mv.visitVarInsn(Type.getType(type).getOpcode(Opcodes.ILOAD), 2);
+					mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, clazzInternalName, setters.get(name).getName(),
+							"("+descriptor+")V", false);
+					mv.visitInsn(Opcodes.RETURN);
+				}
+				id++;
+			}
+		}
+
+		mv.visitLabel(l1);
+		mv.visitInsn(Opcodes.RETURN);
+
+		mv.visitLabel(l2);
+		mv.visitLocalVariable("this", clazzDescriptor, null, l0, l2, 0);
+		mv.visitLocalVariable("id", "I", null, l0, l2, 1);
+		mv.visitLocalVariable("value", descriptor, null, l0, l2, 2);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	private static Class<?> wrapper(Class<?> type) {
+		if(type == int.class)
+			return Integer.class;
+		if(type == long.class)
+			return Long.class;
+		if(type == double.class)
+			return Double.class;
+		if(type == boolean.class)
+			return Boolean.class;
+		throw new IllegalArgumentException("unsupported primitive type: "+type);
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016 SyncObjects Ltda.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syncframework.optimizer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Generates the switch statements utilized by the optimized classes to dispatch on \@Action and \@Parameter
+ * names and ids.
+ *
+ * Names are resolved to their ids as javac compiles a switch on Strings: a lookupswitch on the hashCode() of
+ * the name, followed by the equals() of the names sharing the same hash code. Ids are the positions of the
+ * names in the order they were declared, so the code dispatching on ids is a tableswitch.
+ *
+ * @author dfroz
+ */
+class SwitchGenerator {
+	/**
+	 * Generates the code:
+	 *
+	 * switch(name) {
+	 * 	case "first": return 0;
+	 * 	case "second": return 1;
+	 * 	...
+	 * }
+	 * return -1;
+	 *
+	 * @param variable index of the local variable holding the name
+	 */
+	static void generateIdLookup(MethodVisitor mv, int variable, Collection<String> names) {
+		String keys[] = names.toArray(new String[0]);
+		Label dflt = new Label();
+
+		if(keys.length > 0) {
+			// hash codes sorted as required by the lookupswitch; same hash code names kept in declaration order
+			Map<Integer,List<Integer>> hashes = new TreeMap<Integer,List<Integer>>();
+			for(int i = 0; i < keys.length; i++) {
+				Integer hash = keys[i].hashCode();
+				if(!hashes.containsKey(hash))
+					hashes.put(hash, new ArrayList<Integer>());
+				hashes.get(hash).add(i);
+			}
+			int values[] = new int[hashes.size()];
+			Label labels[] = new Label[hashes.size()];
+			int n = 0;
+			for(Integer hash: hashes.keySet()) {
+				values[n] = hash;
+				labels[n++] = new Label();
+			}
+
+			mv.visitVarInsn(Opcodes.ALOAD, variable);
+			mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/String", "hashCode", "()I", false);
+			mv.visitLookupSwitchInsn(dflt, values, labels);
+
+			n = 0;
+			for(List<Integer> ids: hashes.values()) {
+				mv.visitLabel(labels[n++]);
+				for(int id: ids) {
+					Label next = new Label();
+					mv.visitVarInsn(Opcodes.ALOAD, variable);
+					mv.visitLdcInsn(keys[id]);
+					mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/String", "equals", "(Ljava/lang/Object;)Z", false);
+					mv.visitJumpInsn(Opcodes.IFEQ, next);
+					pushInt(mv, id);
+					mv.visitInsn(Opcodes.IRETURN);
+					mv.visitLabel(next);
+				}
+				mv.visitJumpInsn(Opcodes.GOTO, dflt);
+			}
+		}
+
+		mv.visitLabel(dflt);
+		mv.visitInsn(Opcodes.ICONST_M1);
+		mv.visitInsn(Opcodes.IRETURN);
+	}
+
+	/**
+	 * Generates a tableswitch on the int local variable, jumping to the label of the id or to the default label.
+	 * @return labels of the ids, to be visited by the caller
+	 */
+	static Label[] generateIdSwitch(MethodVisitor mv, int variable, int size, Label dflt) {
+		Label labels[] = new Label[size];
+		if(size == 0) {
+			mv.visitJumpInsn(Opcodes.GOTO, dflt);
+			return labels;
+		}
+		for(int i = 0; i < size; i++)
+			labels[i] = new Label();
+		mv.visitVarInsn(Opcodes.ILOAD, variable);
+		mv.visitTableSwitchInsn(0, size - 1, dflt, labels);
+		return labels;
+	}
+
+	static void pushInt(MethodVisitor mv, int value) {
+		if(value >= -1 && value <= 5)
+			mv.visitInsn(Opcodes.ICONST_0 + value);
+		else if(value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE)
+			mv.visitIntInsn(Opcodes.BIPUSH, value);
+		else if(value >= Short.MIN_VALUE && value <= Short.MAX_VALUE)
+			mv.visitIntInsn(Opcodes.SIPUSH, value);
+		else
+			mv.visitLdcInsn(value);
+	}
+}
@@ -15,7 +15,7 @@
  */
 package io.syncframework.responder;
 
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.util.HashMap;
@@ -149,8 +149,8 @@ public class RenderResponder implements Responder {
 			log.trace("render template attributes mapped");
 		}
 		
-		ByteArrayOutputStream bos = (ByteArrayOutputStream)response.getOutputStream();
-		bos.reset();
+		response.resetOutputStream();
+		OutputStream os = response.getOutputStream();
 		
 		try {
 			Configuration cfg = (Configuration)context.get(TEMPLATE_ENGINE);
@@ -171,9 +171,9 @@ public class RenderResponder implements Responder {
 					log.trace("rendering "+bean+" to template "+template.getName());
 			}
 			
-			PrintWriter writer = new PrintWriter(new OutputStreamWriter(bos, this.charset));
+			PrintWriter writer = new PrintWriter(new OutputStreamWriter(os, this.charset));
 			template.process(attributes, writer);
-			bos.flush();
+			os.flush();
 		}
 		catch(TemplateException e) {
 			StringBuffer sb = new StringBuffer();
@@ -185,8 +185,10 @@ public class RenderResponder implements Responder {
 			sb.append(ExceptionUtils.printStackTraceHtml(e));
 			// sb.append("Caused by: ").append(ExceptionUtils.printStackTraceHtml(e.getCauseException()));
 			response.setStatus(504);
-			response.getOutputStream().write(sb.toString().getBytes());
-			bos.flush();
+			// discard the partially rendered template
+			response.resetOutputStream();
+			os.write(sb.toString().getBytes());
+			os.flush();
 			return;
 		}
 		
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2016 SyncObjects Ltda.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syncframework.util;
+
+/**
+ * Parses numbers out of slices of a CharSequence without creating objects.
+ *
+ * The common forms of request parameters (an optional sign followed by ASCII digits and, for doubles, by a
+ * decimal point and a few more digits) are parsed in place. Anything else is handed to the JDK parsers, so the
+ * results and the exceptions thrown are the same as those of Double.parseDouble() and Long.parseLong().
+ *
+ * @author dfroz
+ */
+public class NumberUtils {
+	// powers of ten exactly represented by doubles
+	private static final double POWERS[] = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+	// largest mantissa exactly represented by doubles
+	private static final long MAX_EXACT = 1L << 53;
+
+	/**
+	 * @return the value as Double.parseDouble(s).intValue(): decimals are truncated and values out of range
+	 * are saturated.
+	 */
+	public static int parseInt(CharSequence s, int start, int end) {
+		long value = parseDigits(s, start, end);
+		if(value != Long.MIN_VALUE && value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE)
+			return (int)value;
+		return (int)parseDouble(s, start, end);
+	}
+
+	public static int parseInt(CharSequence s) {
+		return parseInt(s, 0, s.length());
+	}
+
+	/**
+	 * @return the value as Long.parseLong(s)
+	 * @throws NumberFormatException as Long.parseLong(s)
+	 */
+	public static long parseLong(CharSequence s, int start, int end) {
+		long value = parseDigits(s, start, end);
+		if(value != Long.MIN_VALUE)
+			return value;
+		return Long.parseLong(s.subSequence(start, end).toString());
+	}
+
+	public static long parseLong(CharSequence s) {
+		return parseLong(s, 0, s.length());
+	}
+
+	/**
+	 * @return the value as Double.parseDouble(s)
+	 * @throws NumberFormatException as Double.parseDouble(s)
+	 */
+	public static double parseDouble(CharSequence s, int start, int end) {
+		int i = start;
+		boolean negative = false;
+		if(i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+			negative = s.charAt(i) == '-';
+			i++;
+		}
+		long mantissa = 0;
+		int digits = 0;
+		int decimals = -1;
+		for(; i < end; i++) {
+			char ch = s.charAt(i);
+			if(ch >= '0' && ch <= '9') {
+				mantissa = mantissa * 10 + (ch - '0');
+				if(++digits > 15)
+					break;
+				if(decimals >= 0)
+					decimals++;
+			}
+			else if(ch == '.' && decimals < 0) {
+				decimals = 0;
+			}
+			else {
+				break;
+			}
+		}
+		// mantissa and power of ten both exact: the division is correctly rounded
+		if(i == end && digits > 0 && mantissa < MAX_EXACT && decimals < POWERS.length) {
+			double value = decimals > 0 ? mantissa / POWERS[decimals] : mantissa;
+			return negative ? -value : value;
+		}
+		return Double.parseDouble(s.subSequence(start, end).toString());
+	}
+
+	public static double parseDouble(CharSequence s) {
+		return parseDouble(s, 0, s.length());
+	}
+
+	/**
+	 * @return the value of an optional sign followed by up to 18 ASCII digits; Long.MIN_VALUE for anything else
+	 */
+	private static long parseDigits(CharSequence s, int start, int end) {
+		int i = start;
+		boolean negative = false;
+		if(i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+			negative = s.charAt(i) == '-';
+			i++;
+		}
+		// 18 digits never overflow
+		if(i == end || end - i > 18)
+			return Long.MIN_VALUE;
+		long value = 0;
+		for(; i < end; i++) {
+			char ch = s.charAt(i);
+			if(ch < '0' || ch > '9')
+				return Long.MIN_VALUE;
+			value = value * 10 + (ch - '0');
+		}
+		return negative ? -value : value;
+	}
+}
@@ -0,0 +1,176 @@
+package io.syncframework.core;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class URLRouterTest {
+	private static final Logger log = LoggerFactory.getLogger(URLRouterTest.class);
+	private static final String PATTERNS[] = { 
+			"/*", "/users/*", "/users/list", "/users/list*", "/users/admin/*", "/users/adm*", "/docs/index.html", 
+			"/docs/", "/a/b/c/*", "/api/v1/orders/*", "/api/v1/order*", "/api/v1/orders/list", "/api2/*" 
+	};
+	private static final Set<String> ACTIONS = new HashSet<String>(Arrays.asList("main", "add", "list", "save", "index"));
+	private static final String URLS[] = {
+			"/", "/x", "/add", "/add.do", "/list.html;all,max=10", "/users", "/users/", "/users/add", "/users/add.do",
+			"/users/list", "/users/list.do", "/users/listing", "/users/list/", "/users/list/add", "/users/admin/", 
+			"/users/admin/save", "/users/admin/x/y", "/users/adm", "/users/administrator", "/users//", "/users/x/y",
+			"/docs/index.html", "/docs/index", "/docs/", "/docs", "/a/b/c/", "/a/b/c/add?x=1", "/a/b/c/d/add", "/a/b/",
+			"/api/v1/orders/list", "/api/v1/orders/save", "/api/v1/orders/", "/api/v1/order", "/api/v1/orderlist",
+			"/api2/add", "/api2", "/USERS/add", "/users/Add", "/users/add-on", "/users/_x", "/users/.hidden",
+			"/users/add?name=/x/y", "/users/add#frag", "/users/add/"
+	};
+	private static List<URLPattern> sorted = new LinkedList<URLPattern>();
+	private static URLRouter<String> router = new URLRouter<String>();
+
+	@BeforeClass
+	public static void setup() throws Exception {
+		for(String url: PATTERNS) {
+			URLPattern pattern = new URLPattern();
+			pattern.compile(url);
+			sorted.add(pattern);
+			router.add(pattern, url, ACTIONS);
+		}
+		// reference: patterns scanned from the longest to the shortest, as registered before the router
+		Collections.sort(sorted, new Comparator<URLPattern>() {
+			public int compare(URLPattern p1, URLPattern p2) {
+				return p2.toString().length() - p1.toString().length();
+			}
+		});
+	}
+
+	@Test
+	public void t01match() {
+		for(String url: URLS) {
+			String pattern = null;
+			String action = null;
+			for(int i = 0; i < sorted.size(); i++) {
+				action = sorted.get(i).action(url);
+				if(action != null) {
+					pattern = PATTERNS[indexOf(sorted.get(i))];
+					break;
+				}
+			}
+			if(action != null && !ACTIONS.contains(action))
+				action = ACTIONS.contains("main") ? "main" : null;
+
+			URLRouter.Match<String> match = match(router, url);
+			log.info("url {} -> {} {}()", url, match != null ? match.getTarget() : null, match != null ? match.getAction() : null);
+			Assert.assertEquals(url, pattern, match != null ? match.getTarget() : null);
+			Assert.assertEquals(url, action, match != null ? match.getAction() : null);
+		}
+	}
+
+	@Test
+	public void t02actions() {
+		Assert.assertEquals("add", match(router, "/users/add.do").getAction());
+		Assert.assertEquals("main", match(router, "/users/unknown").getAction());
+		Assert.assertEquals("/users/list", match(router, "/users/list").getTarget());
+		Assert.assertEquals("/users/list*", PATTERNS[3]);
+		Assert.assertEquals("/users/list*", match(router, "/users/listing").getTarget());
+		Assert.assertNull(match(router, "/users/x/y"));
+		// URLs considered as "/" are handled by the "/*" pattern only
+		Assert.assertEquals("/*", match(router, "/%2e/x").getTarget());
+
+		URLRouter<String> noMain = new URLRouter<String>();
+		URLPattern pattern = new URLPattern();
+		pattern.compile("/*");
+		noMain.add(pattern, "/*", new HashSet<String>(Arrays.asList("add")));
+		Assert.assertEquals("add", match(noMain, "/add").getAction());
+		Assert.assertNull(match(noMain, "/").getAction());
+		Assert.assertNull(match(noMain, "/save").getAction());
+	}
+
+	@Test(expected = URLPatternException.class)
+	public void t03duplicate() {
+		URLPattern pattern = new URLPattern();
+		pattern.compile("/users/*");
+		router.add(pattern, "/users/*", ACTIONS);
+	}
+
+	@Test
+	public void t04variables() {
+		URLRouter<String> variables = new URLRouter<String>();
+		String patterns[] = { "/orders/{id}", "/orders/new", "/orders/{id}/items", "/orders/{id}/items/{item}", 
+				"/orders/{id}/*", "/users/{user}/orders/{order}" };
+		for(String url: patterns) {
+			URLPattern pattern = new URLPattern();
+			pattern.compile(url);
+			variables.add(pattern, url, ACTIONS);
+		}
+		Assert.assertEquals(2, variables.getMaxVariables());
+
+		int offsets[] = new int[4];
+		String url = "/orders/123/items?x=1";
+		URLRouter.Match<String> match = variables.match(url, offsets);
+		Assert.assertEquals("/orders/{id}/items", match.getTarget());
+		Assert.assertEquals("main", match.getAction());
+		Assert.assertArrayEquals(new String[] { "id" }, match.getVariables());
+		Assert.assertEquals("123", url.substring(offsets[0], offsets[1]));
+
+		url = "/orders/9f1c-42_a/items/7";
+		match = variables.match(url, offsets);
+		Assert.assertEquals("/orders/{id}/items/{item}", match.getTarget());
+		Assert.assertEquals("9f1c-42_a", url.substring(offsets[0], offsets[1]));
+		Assert.assertEquals("7", url.substring(offsets[2], offsets[3]));
+
+		Assert.assertEquals("/orders/new", variables.match("/orders/new", offsets).getTarget());
+		Assert.assertEquals("/orders/{id}", variables.match("/orders/newer", offsets).getTarget());
+
+		url = "/orders/5/save.do";
+		match = variables.match(url, offsets);
+		Assert.assertEquals("/orders/{id}/*", match.getTarget());
+		Assert.assertEquals("save", match.getAction());
+		Assert.assertEquals("5", url.substring(offsets[0], offsets[1]));
+
+		url = "/users/dfroz/orders/7.json";
+		match = variables.match(url, offsets);
+		Assert.assertArrayEquals(new String[] { "user", "order" }, match.getVariables());
+		Assert.assertEquals("dfroz", url.substring(offsets[0], offsets[1]));
+		Assert.assertEquals("7.json", url.substring(offsets[2], offsets[3]));
+		Assert.assertNull(variables.match("/orders//items", offsets));
+		Assert.assertNull(variables.match("/orders/5/items/7/x", offsets));
+	}
+
+	@Test
+	public void t05invalid() {
+		String patterns[] = { "/orders/{id", "/orders/x{id}", "/orders/{id}x", "/orders/{}", "/orders/{1d}", 
+				"/orders/{id}/{id}", "/orders/{id}*", "/orders/{id}.json" };
+		for(String url: patterns) {
+			try {
+				new URLPattern().compile(url);
+				Assert.fail(url);
+			}
+			catch(URLPatternException e) {
+				log.info("{}: {}", url, e.getMessage());
+			}
+		}
+	}
+
+	private static URLRouter.Match<String> match(URLRouter<String> router, String url) {
+		return router.match(url, new int[router.getMaxVariables() * 2]);
+	}
+
+	private static int indexOf(URLPattern pattern) {
+		for(int i = 0; i < PATTERNS.length; i++) {
+			URLPattern p = new URLPattern();
+			p.compile(PATTERNS[i]);
+			if(p.toString().equals(pattern.toString()) && p.isWildcard() == pattern.isWildcard())
+				return i;
+		}
+		return -1;
+	}
+}
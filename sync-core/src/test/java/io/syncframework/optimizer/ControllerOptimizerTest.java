@@ -9,16 +9,22 @@ import org.junit.BeforeClass;
 import org.junit.FixMethodOrder;
 import org.junit.Test;
 import org.junit.runners.MethodSorters;
+import org.objectweb.asm.ClassReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.syncframework.api.Action;
 import io.syncframework.api.ApplicationContext;
+import io.syncframework.api.Controller;
 import io.syncframework.api.Converter;
 import io.syncframework.api.ErrorContext;
 import io.syncframework.api.MessageContextMock;
+import io.syncframework.api.Parameter;
 import io.syncframework.api.RenderResult;
 import io.syncframework.api.RequestContext;
 import io.syncframework.api.Result;
+import io.syncframework.api.ResultFactory;
+import io.syncframework.api.Scope;
 import io.syncframework.api.SessionContext;
 
 @FixMethodOrder(MethodSorters.NAME_ASCENDING)
@@ -130,6 +136,236 @@ public class ControllerOptimizerTest {
 		Class<?> interceptors[] = controller._asActionInterceptors("unknown");
 		Assert.assertTrue(interceptors == null);
 	}
+	
+	@Test
+	public void t09actionsBlocking() {
+		Assert.assertTrue(controller._asActionIsBlocking("main") == true);
+		Assert.assertTrue(controller._asActionIsBlocking("redir") == false);
+		Assert.assertTrue(controller._asActionIsBlocking("unknown") == true);
+	}
+	
+	@Test
+	public void t10newInstance() {
+		OController instance = controller._asNewInstance();
+		Assert.assertTrue(instance != null);
+		Assert.assertTrue(instance != controller);
+		Assert.assertTrue(instance.getClass() == controller.getClass());
+	}
+	
+	@Test
+	public void t11scope() {
+		Assert.assertTrue(controller._asScope() == Scope.REQUEST);
+	}
+	
+	@Test
+	public void t12reset() {
+		OController instance = controller._asNewInstance();
+		instance._asApplicationContext(new ApplicationContext());
+		instance._asParameter("name", "Daniel Froz");
+		instance._asReset();
+		Assert.assertTrue(instance._asParameter("name") == null);
+	}
+	
+	@Test
+	public void t13singletonState() throws Exception {
+		ClassOptimizer optimizer = new ClassOptimizer();
+		try {
+			optimizer.optimize(StatefulSingletonController.class);
+			Assert.fail("@Controller with scope SINGLETON keeping @Parameter shall not be optimized");
+		}
+		catch(ReflectorException e) {
+			log.info("expected: {}", e.getMessage());
+			Assert.assertTrue(e.getMessage().contains("SINGLETON"));
+		}
+		try {
+			optimizer.optimize(InheritedStatePooledController.class);
+			Assert.fail("@Controller with scope POOLED inheriting state shall not be optimized");
+		}
+		catch(ReflectorException e) {
+			log.info("expected: {}", e.getMessage());
+			Assert.assertTrue(e.getMessage().contains("BaseController.user"));
+		}
+	}
+	
+	@Test
+	public void t14ids() {
+		Assert.assertTrue(controller._asActionId("unknown") == -1);
+		Assert.assertTrue(controller._asParameterId("unknown") == -1);
+		
+		Result result = controller._asAction(controller._asActionId("main"));
+		Assert.assertTrue(result instanceof RenderResult);
+		Assert.assertTrue(((RenderResult)result).getTemplate().equals("/main.ftl"));
+		try {
+			controller._asAction(-1);
+			Assert.fail("no @Action with id -1");
+		}
+		catch(Exception e) {
+			Assert.assertTrue(e instanceof NoSuchMethodException);
+		}
+		
+		int id = controller._asParameterId("name");
+		Assert.assertTrue(id >= 0);
+		controller._asParameter(id, "Daniel Froz");
+		Assert.assertTrue("Daniel Froz".equals(controller._asParameter(id)));
+		Assert.assertTrue("Daniel Froz".equals(controller._asParameter("name")));
+		Assert.assertTrue(controller._asParameter(-1) == null);
+	}
+	
+	@Test
+	public void t15idsHashCollision() throws Exception {
+		// "Aa" and "BB" share the same hashCode()
+		Assert.assertTrue("Aa".hashCode() == "BB".hashCode());
+		ClassOptimizer optimizer = new ClassOptimizer();
+		byte b[] = optimizer.optimize(CollidingController.class);
+		TestClassLoader tcl = new TestClassLoader();
+		Class<?> clazz = tcl.defineClass(CollidingController.class.getName(), b);
+		OController colliding = (OController)clazz.getDeclaredConstructor().newInstance();
+		
+		Assert.assertTrue(colliding._asActionId("Aa") != colliding._asActionId("BB"));
+		Assert.assertTrue(colliding._asActionId("C#") == -1);
+		RenderResult render = (RenderResult)colliding._asAction("Aa");
+		Assert.assertTrue(render.getTemplate().equals("/Aa.ftl"));
+		render = (RenderResult)colliding._asAction(colliding._asActionId("BB"));
+		Assert.assertTrue(render.getTemplate().equals("/BB.ftl"));
+	}
+	
+	@Test
+	public void t16index() throws Exception {
+		ClassIndex index = new ClassIndex();
+		Assert.assertTrue(index.add(new ClassReader(ExampleController.class.getName())));
+		Assert.assertTrue(index.add(new ClassReader(ExampleInterceptor.class.getName())));
+		Assert.assertTrue(index.add(new ClassReader(ExampleInitializer.class.getName())));
+		Assert.assertFalse(index.add(new ClassReader(SimpleDateConverter.class.getName())));
+		Assert.assertTrue(index.getControllers().contains(ExampleController.class.getName()));
+		Assert.assertTrue(index.getInterceptors().contains(ExampleInterceptor.class.getName()));
+		Assert.assertTrue(index.getInitializers().contains(ExampleInitializer.class.getName()));
+		Assert.assertFalse(index.contains(SimpleDateConverter.class.getName()));
+	}
+	
+	@Test
+	public void t17primitives() throws Exception {
+		ClassOptimizer optimizer = new ClassOptimizer();
+		byte b[] = optimizer.optimize(PrimitiveController.class);
+		TestClassLoader tcl = new TestClassLoader();
+		Class<?> clazz = tcl.defineClass(PrimitiveController.class.getName(), b);
+		OController primitive = (OController)clazz.getDeclaredConstructor().newInstance();
+		
+		Assert.assertTrue(primitive._asParameters().get("count") == int.class);
+		primitive._asParameterInt(primitive._asParameterId("count"), 7);
+		primitive._asParameterLong(primitive._asParameterId("total"), 1L << 40);
+		primitive._asParameterDouble(primitive._asParameterId("ratio"), 0.25);
+		primitive._asParameterBoolean(primitive._asParameterId("flag"), true);
+		// ids of other types are ignored
+		primitive._asParameterInt(primitive._asParameterId("total"), 3);
+		Assert.assertEquals(7, primitive._asParameter("count"));
+		Assert.assertEquals(1L << 40, primitive._asParameter("total"));
+		Assert.assertEquals(0.25, primitive._asParameter("ratio"));
+		Assert.assertEquals(true, primitive._asParameter("flag"));
+		
+		// boxed values are unboxed and null sets the default value
+		primitive._asParameter("count", 9);
+		Assert.assertEquals(9, primitive._asParameter("count"));
+		primitive._asParameter("total", null);
+		Assert.assertEquals(0L, primitive._asParameter("total"));
+		
+		primitive._asReset();
+		Assert.assertEquals(0, primitive._asParameter("count"));
+		Assert.assertEquals(0.0, primitive._asParameter("ratio"));
+		Assert.assertEquals(false, primitive._asParameter("flag"));
+	}
+	
+	@Controller(url="/colliding/*")
+	public static class CollidingController {
+		@Action
+		public Result Aa() {
+			return ResultFactory.render("/Aa.ftl");
+		}
+		
+		@Action
+		public Result BB() {
+			return ResultFactory.render("/BB.ftl");
+		}
+	}
+	
+	@Controller(url="/primitive/*")
+	public static class PrimitiveController {
+		@Parameter
+		private int count;
+		@Parameter
+		private long total;
+		@Parameter
+		private double ratio;
+		@Parameter
+		private boolean flag;
+		
+		@Action
+		public Result main() {
+			return ResultFactory.render("/main.ftl");
+		}
+		
+		public int getCount() {
+			return count;
+		}
+		
+		public void setCount(int count) {
+			this.count = count;
+		}
+		
+		public long getTotal() {
+			return total;
+		}
+		
+		public void setTotal(long total) {
+			this.total = total;
+		}
+		
+		public double getRatio() {
+			return ratio;
+		}
+		
+		public void setRatio(double ratio) {
+			this.ratio = ratio;
+		}
+		
+		public boolean getFlag() {
+			return flag;
+		}
+		
+		public void setFlag(boolean flag) {
+			this.flag = flag;
+		}
+	}
+	
+	@Controller(url="/singleton/*", scope=Scope.SINGLETON)
+	public static class StatefulSingletonController {
+		@Parameter
+		private String name;
+		
+		@Action
+		public Result main() {
+			return ResultFactory.render("/"+name+".ftl");
+		}
+		
+		public String getName() {
+			return name;
+		}
+		
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+	
+	public static class BaseController {
+		protected String user;
+	}
+	
+	@Controller(url="/pooled/*", scope=Scope.POOLED)
+	public static class InheritedStatePooledController extends BaseController {
+		@Action
+		public Result main() {
+			return ResultFactory.render("/"+user+".ftl");
+		}
+	}
 }
 
 class TestClassLoader extends ClassLoader {
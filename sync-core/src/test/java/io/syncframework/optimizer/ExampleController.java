@@ -52,7 +52,7 @@ public class ExampleController {
 		return ResultFactory.render("/save.ftl");
 	}
 	
-	@Action
+	@Action(blocking=false)
 	public Result redir() {
 		int i=0;
 		application.put("i", i++);
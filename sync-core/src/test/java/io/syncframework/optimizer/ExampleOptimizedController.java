@@ -16,6 +16,7 @@ import io.syncframework.api.Parameter;
 import io.syncframework.api.RequestContext;
 import io.syncframework.api.Result;
 import io.syncframework.api.ResultFactory;
+import io.syncframework.api.Scope;
 import io.syncframework.api.SessionContext;
 import io.syncframework.api.SessionManager;
 
@@ -62,7 +63,7 @@ public class ExampleOptimizedController implements OController {
 		return ResultFactory.render("/save.ftl");
 	}
 	
-	@Action(type="text/html")
+	@Action(type="text/html", blocking=false)
 	public Result redir() {
 		int i=0;
 		application.put("i", i++);
@@ -126,7 +127,7 @@ public class ExampleOptimizedController implements OController {
 			_asActions.put("main", true);
 			_asActions.put("upload", true);
 			_asActions.put("save", true);
-			_asActions.put("redir", true);
+			_asActions.put("redir", false);
 			
 			_asActionsType = new HashMap<String,String>();
 			_asActionsType.put("main", "text/html");
@@ -171,30 +172,65 @@ public class ExampleOptimizedController implements OController {
 		return _asParameters;
 	}
 
+	@Override
+	public int _asParameterId(String name) {
+		switch(name) {
+		case "name": return 0;
+		case "date": return 1;
+		}
+		return -1;
+	}
+
 	/**
 	 * getter implementation of parameter
 	 */
 	@Override
 	public Object _asParameter(String name) {
-		if(name.equals("name"))
-			return getName();
-		if(name.equals("date"))
-			return getDate();
+		return _asParameter(_asParameterId(name));
+	}
+
+	@Override
+	public Object _asParameter(int id) {
+		switch(id) {
+		case 0: return getName();
+		case 1: return getDate();
+		}
 		return null;
 	}
 
 	@Override
 	public void _asParameter(String name, Object value) {
-		if(name.equals("name")) {
-			setName((String)value);
-			return;
-		}
-		if(name.equals("date")) {
-			setDate((Date)value);
-			return;
+		_asParameter(_asParameterId(name), value);
+	}
+
+	@Override
+	public void _asParameter(int id, Object value) {
+		switch(id) {
+		case 0: setName((String)value); return;
+		case 1: setDate((Date)value); return;
 		}
 	}
 	
+	@Override
+	public void _asParameterInt(int id, int value) {
+		// no int @Parameters
+	}
+	
+	@Override
+	public void _asParameterLong(int id, long value) {
+		// no long @Parameters
+	}
+	
+	@Override
+	public void _asParameterDouble(int id, double value) {
+		// no double @Parameters
+	}
+	
+	@Override
+	public void _asParameterBoolean(int id, boolean value) {
+		// no boolean @Parameters
+	}
+	
 	@Override
 	public Class<?> _asParameterConverter(String name) {
 		return _asConverters.get(name);
@@ -236,17 +272,33 @@ public class ExampleOptimizedController implements OController {
 	}
 
 	@Override
-	public Result _asAction(String name) {		
-		if(name.equals("upload"))
-			return upload();
-		else if(name.equals("save"))
-			return save();
-		else if(name.equals("main"))
-			return main();
-		else if(name.equals("redir"))
-			return redir();
-		else
+	public int _asActionId(String name) {
+		switch(name) {
+		case "main": return 0;
+		case "upload": return 1;
+		case "save": return 2;
+		case "redir": return 3;
+		}
+		return -1;
+	}
+
+	@Override
+	public Result _asAction(String name) {
+		int id = _asActionId(name);
+		if(id < 0)
 			throw new RuntimeException("no action named "+name);
+		return _asAction(id);
+	}
+
+	@Override
+	public Result _asAction(int id) {
+		switch(id) {
+		case 0: return main();
+		case 1: return upload();
+		case 2: return save();
+		case 3: return redir();
+		}
+		throw new RuntimeException("no action with id "+id);
 	}
 	
 	@Override
@@ -261,4 +313,30 @@ public class ExampleOptimizedController implements OController {
 			return true;
 		return false;
 	}
+
+	@Override
+	public boolean _asActionIsBlocking(String name) {
+		if(Boolean.FALSE.equals(_asActions.get(name)))
+			return false;
+		return true;
+	}
+
+	@Override
+	public OController _asNewInstance() {
+		return new ExampleOptimizedController();
+	}
+
+	@Override
+	public Scope _asScope() {
+		return Scope.REQUEST;
+	}
+
+	@Override
+	public void _asReset() {
+		this.name = null;
+		this.date = null;
+		this.application = null;
+		this.errors = null;
+		this.session = null;
+	}
 }
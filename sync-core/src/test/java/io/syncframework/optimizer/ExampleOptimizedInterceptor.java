@@ -132,25 +132,60 @@ public class ExampleOptimizedInterceptor implements OInterceptor {
 	 */
 	@Override
 	public Object _asParameter(String name) {
-		if(name.equals("name"))
-			return getName();
-		if(name.equals("date"))
-			return getDate();
+		return _asParameter(_asParameterId(name));
+	}
+
+	@Override
+	public Object _asParameter(int id) {
+		switch(id) {
+		case 0: return getName();
+		case 1: return getDate();
+		}
 		return null;
 	}
 
 	@Override
-	public void _asParameter(String name, Object value) {
-		if(name.equals("name")) {
-			setName((String)value);
-			return;
+	public int _asParameterId(String name) {
+		switch(name) {
+		case "name": return 0;
+		case "date": return 1;
 		}
-		if(name.equals("date")) {
-			setDate((Date)value);
-			return;
+		return -1;
+	}
+
+	@Override
+	public void _asParameter(String name, Object value) {
+		_asParameter(_asParameterId(name), value);
+	}
+
+	@Override
+	public void _asParameter(int id, Object value) {
+		switch(id) {
+		case 0: setName((String)value); return;
+		case 1: setDate((Date)value); return;
 		}
 	}
 	
+	@Override
+	public void _asParameterInt(int id, int value) {
+		// no int @Parameters
+	}
+	
+	@Override
+	public void _asParameterLong(int id, long value) {
+		// no long @Parameters
+	}
+	
+	@Override
+	public void _asParameterDouble(int id, double value) {
+		// no double @Parameters
+	}
+	
+	@Override
+	public void _asParameterBoolean(int id, boolean value) {
+		// no boolean @Parameters
+	}
+	
 	@Override
 	public Class<?> _asParameterConverter(String name) {
 		return _asConverters.get(name);
@@ -185,4 +220,23 @@ public class ExampleOptimizedInterceptor implements OInterceptor {
 	public void _asSessionContext(SessionContext session) {
 		this.session = session;
 	}
+
+	@Override
+	public OInterceptor _asNewInstance() {
+		return new ExampleOptimizedInterceptor();
+	}
+
+	@Override
+	public void _asReset() {
+		this.name = null;
+		this.date = null;
+		this.errors = null;
+		this.message = null;
+		this.session = null;
+	}
+
+	@Override
+	public boolean _asPoolable() {
+		return true;
+	}
 }
@@ -16,10 +16,12 @@ import io.syncframework.api.ApplicationContext;
 import io.syncframework.api.Converter;
 import io.syncframework.api.CookieContext;
 import io.syncframework.api.ErrorContext;
+import io.syncframework.api.Interceptor;
 import io.syncframework.api.MessageContextMock;
 import io.syncframework.api.RenderResult;
 import io.syncframework.api.RequestContext;
 import io.syncframework.api.Result;
+import io.syncframework.api.ResultFactory;
 import io.syncframework.api.SessionContext;
 
 @FixMethodOrder(MethodSorters.NAME_ASCENDING)
@@ -102,4 +104,80 @@ public class InterceptorOptimizerTest {
 		Result result = interceptor._asAfter();
 		Assert.assertTrue(result == null);
 	}
+	
+	@Test
+	public void t06instances() {
+		OInterceptor instance = interceptor._asNewInstance();
+		Assert.assertTrue(instance != interceptor);
+		Assert.assertTrue(instance.getClass() == interceptor.getClass());
+		Assert.assertTrue(instance._asParameter("name") == null);
+		
+		interceptor._asParameter("name", "Daniel Froz");
+		interceptor._asReset();
+		Assert.assertTrue(interceptor._asParameter("name") == null);
+		Assert.assertTrue(interceptor._asParameter("date") == null);
+	}
+	
+	@Test
+	public void t07state() throws Exception {
+		Assert.assertTrue(interceptor._asPoolable());
+		Assert.assertFalse(optimize(StatefulInterceptor.class)._asPoolable());
+		Assert.assertFalse(optimize(InheritedStateInterceptor.class)._asPoolable());
+		Assert.assertTrue(optimize(StatelessInterceptor.class)._asPoolable());
+	}
+	
+	private static OInterceptor optimize(Class<?> clazz) throws Exception {
+		byte b[] = new ClassOptimizer().optimize(clazz);
+		TestClassLoader tcl = new TestClassLoader();
+		tcl.defineClass(clazz.getName(), b);
+		return (OInterceptor)tcl.loadClass(clazz.getName()).getDeclaredConstructor().newInstance();
+	}
+	
+	@Interceptor
+	public static class StatefulInterceptor {
+		private static int requests;
+		private final String name = "stateful";
+		private int counter;
+		
+		public Result before() {
+			counter++;
+			requests++;
+			return null;
+		}
+		
+		public Result after() {
+			return ResultFactory.render("/"+name+counter+".ftl");
+		}
+	}
+	
+	public static class BaseInterceptor {
+		protected String user;
+	}
+	
+	@Interceptor
+	public static class InheritedStateInterceptor extends BaseInterceptor {
+		public Result before() {
+			user = "dfroz";
+			return null;
+		}
+		
+		public Result after() {
+			return null;
+		}
+	}
+	
+	@Interceptor
+	public static class StatelessInterceptor {
+		private static final String TEMPLATE = "/stateless.ftl";
+		private final String name = "stateless";
+		private ErrorContext errors;
+		
+		public Result before() {
+			return errors.isEmpty() ? null : ResultFactory.render(TEMPLATE);
+		}
+		
+		public Result after() {
+			return ResultFactory.render("/"+name+".ftl");
+		}
+	}
 }
@@ -0,0 +1,114 @@
+package io.syncframework.util;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class NumberUtilsTest {
+	private static final Logger log = LoggerFactory.getLogger(NumberUtilsTest.class);
+	private static final String VALUES[] = {
+			// signs
+			"0", "1", "+1", "-1", "-0", "+0", "-0.0", "--1", "+-1", "1-",
+			// decimal points
+			"1.", ".5", "-.5", "+.5", ".", "-.", "1.5", "-1.5", "0.1", "1..5", "1.5.", "3.14159",
+			// 15, 16, 18 and 19 digits
+			"123456789012345", "1234567890123456", "123456789012345678", "1234567890123456789",
+			"-123456789012345", "-1234567890123456", "-123456789012345678", "-1234567890123456789",
+			"1234567890.12345", "1234567890.123456", "0.123456789012345", "0.1234567890123456",
+			"9007199254740991", "9007199254740993", "9223372036854775807", "-9223372036854775808",
+			"9223372036854775808", "-9223372036854775809", "99999999999999999999",
+			// leading zeros
+			"007", "-007", "000000000000000000001", "0000000000000000.5", "00.10",
+			// int overflow and saturation
+			"2147483647", "-2147483648", "2147483648", "-2147483649", "4294967296", "1e10", "-1e10",
+			"1.5", "-1.5", "2147483647.9", "-2147483648.9",
+			// left to the JDK
+			" 1", "1 ", " 1 ", "\t1\n", "1e3", "1E-3", "1e400", "-1e400", "NaN", "-NaN", "Infinity", "-Infinity",
+			"0x10", "0X1p4", "1d", "1f", "1L", "1_000", "\u0661", "abc",
+			// empty and sign only
+			"", "+", "-", " "
+	};
+
+	@Test
+	public void t01parseDouble() {
+		for(String s: VALUES) {
+			Object expected;
+			try {
+				expected = Double.parseDouble(s);
+			}
+			catch(Exception e) {
+				expected = e.getClass();
+			}
+			assertEquals(s, expected, parseDouble(s, 0, s.length()));
+			assertEquals(s, expected, parseDouble("x["+s+"]y", 2, s.length()+2));
+		}
+	}
+
+	@Test
+	public void t02parseLong() {
+		for(String s: VALUES) {
+			Object expected;
+			try {
+				expected = Long.parseLong(s);
+			}
+			catch(Exception e) {
+				expected = e.getClass();
+			}
+			assertEquals(s, expected, parseLong(s, 0, s.length()));
+			assertEquals(s, expected, parseLong("x["+s+"]y", 2, s.length()+2));
+		}
+	}
+
+	@Test
+	public void t03parseInt() {
+		for(String s: VALUES) {
+			Object expected;
+			try {
+				expected = Double.valueOf(s).intValue();
+			}
+			catch(Exception e) {
+				expected = e.getClass();
+			}
+			assertEquals(s, expected, parseInt(s, 0, s.length()));
+			assertEquals(s, expected, parseInt("x["+s+"]y", 2, s.length()+2));
+		}
+	}
+
+	private static void assertEquals(String s, Object expected, Object actual) {
+		if(log.isDebugEnabled())
+			log.debug("\"{}\": {}", s, actual);
+		// Double.equals() tells -0.0 from 0.0 and matches NaN
+		Assert.assertEquals("\""+s+"\"", expected, actual);
+	}
+
+	private static Object parseDouble(CharSequence s, int start, int end) {
+		try {
+			return NumberUtils.parseDouble(s, start, end);
+		}
+		catch(Exception e) {
+			return e.getClass();
+		}
+	}
+
+	private static Object parseLong(CharSequence s, int start, int end) {
+		try {
+			return NumberUtils.parseLong(s, start, end);
+		}
+		catch(Exception e) {
+			return e.getClass();
+		}
+	}
+
+	private static Object parseInt(CharSequence s, int start, int end) {
+		try {
+			return NumberUtils.parseInt(s, start, end);
+		}
+		catch(Exception e) {
+			return e.getClass();
+		}
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2016 SyncObjects Ltda.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syncframework.maven;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.MavenProjectHelper;
+
+import io.syncframework.core.ApplicationConfig;
+import io.syncframework.optimizer.Optimizer;
+
+/**
+ * Packages the application as a SAR file holding its classes already optimized, so the server deploying it
+ * loads the classes as they are, without running the Optimizer.
+ *
+ * The SAR holds the contents of the <code>sarDirectory</code> (application.properties, public/, private/, ...),
+ * the original classes under classes/, the optimized classes under work/ and the runtime dependencies
+ * under lib/. The SYNC Framework libraries are provided by the server and are not packaged.
+ *
+ * Servers running a different version of the Optimizer ignore the optimized classes and optimize the
+ * original classes as usual.
+ *
+ * @author dfroz
+ */
+@Mojo(name = "sar", defaultPhase = LifecyclePhase.PACKAGE, requiresDependencyResolution = ResolutionScope.RUNTIME,
+		threadSafe = true)
+public class SarMojo extends AbstractMojo {
+	private static final String SYNC_GROUP_ID = "io.syncframework";
+
+	@Parameter(defaultValue = "${project}", readonly = true, required = true)
+	private MavenProject project;
+
+	@Component
+	private MavenProjectHelper projectHelper;
+
+	/**
+	 * Name of the application; the SAR is deployed under this name.
+	 */
+	@Parameter(property = "sync.application", defaultValue = "${project.artifactId}", required = true)
+	private String application;
+
+	@Parameter(defaultValue = "${project.build.outputDirectory}", required = true)
+	private File classesDirectory;
+
+	/**
+	 * Directory holding the remaining files of the application: application.properties, public/, private/, ...
+	 */
+	@Parameter(defaultValue = "${project.basedir}/src/main/sar", required = true)
+	private File sarDirectory;
+
+	/**
+	 * Directory holding the optimized classes, kept across builds so only the classes changed are optimized again
+	 */
+	@Parameter(defaultValue = "${project.build.directory}/sync", required = true)
+	private File optimizerDirectory;
+
+	@Parameter(defaultValue = "${project.build.directory}", required = true)
+	private File outputDirectory;
+
+	public void execute() throws MojoExecutionException {
+		if(!new File(sarDirectory, ApplicationConfig.CONFIG_FILENAME).exists())
+			throw new MojoExecutionException("missing "+ApplicationConfig.CONFIG_FILENAME+" in "+sarDirectory);
+		if(!classesDirectory.isDirectory())
+			throw new MojoExecutionException("missing classes directory "+classesDirectory);
+
+		List<File> libraries = new ArrayList<File>();
+		for(Artifact artifact: project.getArtifacts()) {
+			if(SYNC_GROUP_ID.equals(artifact.getGroupId()) || !"jar".equals(artifact.getType()))
+				continue;
+			libraries.add(artifact.getFile());
+		}
+
+		File workDirectory = new File(optimizerDirectory, "work");
+		File cacheDirectory = new File(optimizerDirectory, "cache");
+		workDirectory.mkdirs();
+		cacheDirectory.mkdirs();
+
+		// the optimized classes are loaded by the Optimizer with the SYNC Framework classes of this plugin
+		ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		try {
+			Optimizer optimizer = new Optimizer("@Application "+application, classesDirectory, libraries,
+					workDirectory, cacheDirectory, getClass().getClassLoader());
+			optimizer.optimize();
+			Optimizer.mark(workDirectory);
+		}
+		catch(Exception e) {
+			throw new MojoExecutionException("failed to optimize classes of "+classesDirectory, e);
+		}
+		finally {
+			Thread.currentThread().setContextClassLoader(contextClassLoader);
+		}
+
+		File sar = new File(outputDirectory, application+".sar");
+		try {
+			ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(sar)));
+			try {
+				addDirectory(zos, sarDirectory, "");
+				addDirectory(zos, classesDirectory, "classes/");
+				addDirectory(zos, workDirectory, "work/");
+				for(File library: libraries)
+					addFile(zos, library, "lib/"+library.getName());
+			}
+			finally {
+				zos.close();
+			}
+		}
+		catch(IOException e) {
+			throw new MojoExecutionException("failed to create "+sar, e);
+		}
+
+		projectHelper.attachArtifact(project, "sar", sar);
+		getLog().info("created "+sar+" with "+libraries.size()+" libraries");
+	}
+
+	/**
+	 * Adds the directory contents to the SAR under the given prefix
+	 */
+	private void addDirectory(ZipOutputStream zos, File dir, String prefix) throws IOException {
+		File files[] = dir.listFiles();
+		Arrays.sort(files);
+		for(File f: files) {
+			if(f.isDirectory()) {
+				String name = prefix+f.getName()+"/";
+				zos.putNextEntry(new ZipEntry(name));
+				zos.closeEntry();
+				addDirectory(zos, f, name);
+				continue;
+			}
+			// the manifest of the WorkDirectory is only meaningful to this build
+			if(f.getName().equals(Optimizer.MANIFEST))
+				continue;
+			addFile(zos, f, prefix+f.getName());
+		}
+	}
+
+	private void addFile(ZipOutputStream zos, File file, String name) throws IOException {
+		ZipEntry entry = new ZipEntry(name);
+		entry.setTime(file.lastModified());
+		zos.putNextEntry(entry);
+		Files.copy(file.toPath(), zos);
+		zos.closeEntry();
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016 SyncObjects Ltda.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syncframework.netty;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the queue depth and wait time counters common to all {@link Dispatcher} strategies.
+ * 
+ * @author dfroz
+ */
+public abstract class AbstractDispatcher implements Dispatcher {
+	private final AtomicInteger queueDepth = new AtomicInteger();
+	private final LongAccumulator maxQueueDepth = new LongAccumulator(Math::max, 0);
+	private final LongAdder dispatched = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder waitTime = new LongAdder();
+	private final LongAccumulator maxWaitTime = new LongAccumulator(Math::max, 0);
+
+	@Override
+	public void dispatch(final Runnable task) {
+		final long queuedAt = System.nanoTime();
+		int depth = queueDepth.incrementAndGet();
+		try {
+			execute(new Runnable() {
+				@Override
+				public void run() {
+					queueDepth.decrementAndGet();
+					long wait = System.nanoTime() - queuedAt;
+					waitTime.add(wait);
+					maxWaitTime.accumulate(wait);
+					task.run();
+				}
+			});
+		}
+		catch(RejectedExecutionException e) {
+			queueDepth.decrementAndGet();
+			rejected.increment();
+			throw e;
+		}
+		maxQueueDepth.accumulate(depth);
+		dispatched.increment();
+	}
+
+	/**
+	 * Hands the task over to the strategy's threads
+	 * @throws RejectedExecutionException when the task cannot be accepted
+	 */
+	protected abstract void execute(Runnable task);
+
+	@Override
+	public int getQueueDepth() {
+		return queueDepth.get();
+	}
+	@Override
+	public int getMaxQueueDepth() {
+		return maxQueueDepth.intValue();
+	}
+	@Override
+	public long getDispatched() {
+		return dispatched.sum();
+	}
+	@Override
+	public long getRejected() {
+		return rejected.sum();
+	}
+	@Override
+	public long getWaitTime() {
+		return waitTime.sum();
+	}
+	@Override
+	public long getMaxWaitTime() {
+		return maxWaitTime.get();
+	}
+
+	@Override
+	public String toString() {
+		long dispatched = getDispatched();
+		long averageWait = dispatched > 0 ? getWaitTime() / dispatched : 0;
+		StringBuilder sb = new StringBuilder();
+		sb.append(getClass().getSimpleName());
+		sb.append("[queue: ").append(getQueueDepth()).append("/max ").append(getMaxQueueDepth());
+		sb.append("; dispatched: ").append(dispatched);
+		sb.append("; rejected: ").append(getRejected());
+		sb.append("; wait: avg ").append(TimeUnit.NANOSECONDS.toMicros(averageWait)).append("us");
+		sb.append("/max ").append(TimeUnit.NANOSECONDS.toMicros(getMaxWaitTime())).append("us]");
+		return sb.toString();
+	}
+}
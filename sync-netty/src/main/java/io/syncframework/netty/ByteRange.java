@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016 SyncObjects Ltda.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syncframework.netty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Range of bytes of a file requested with the Range header (RFC 7233), with its positions resolved against the 
+ * length of the file.
+ * 
+ * @author dfroz
+ */
+public class ByteRange {
+	private static final String BYTES_UNIT = "bytes=";
+	/**
+	 * Ranges beyond this number are not honored; the whole file is sent instead
+	 */
+	public static final int MAX_RANGES = 16;
+	private final long first;
+	private final long last;
+
+	private ByteRange(long first, long last) {
+		this.first = first;
+		this.last = last;
+	}
+
+	/**
+	 * Parses the value of a Range header such as <code>bytes=0-499,1000-,-500</code>.
+	 * 
+	 * @return the satisfiable ranges; an empty list if none can be satisfied; or null if the header is not valid
+	 * or shall be ignored, in which case the whole file is sent.
+	 */
+	public static List<ByteRange> parse(String header, long length) {
+		if(header == null || !header.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length()))
+			return null;
+		String specs[] = header.substring(BYTES_UNIT.length()).split(",");
+		if(specs.length > MAX_RANGES)
+			return null;
+		List<ByteRange> ranges = new ArrayList<ByteRange>(specs.length);
+		for(String spec: specs) {
+			spec = spec.trim();
+			int dash = spec.indexOf('-');
+			if(dash < 0)
+				return null;
+			long first, last;
+			try {
+				if(dash == 0) {
+					// suffix: last N bytes
+					long suffix = Long.parseLong(spec.substring(1));
+					if(suffix < 0)
+						return null;
+					if(suffix == 0)
+						continue;
+					first = Math.max(0, length - suffix);
+					last = length - 1;
+				}
+				else {
+					first = Long.parseLong(spec.substring(0, dash));
+					last = dash == spec.length() - 1 ? Long.MAX_VALUE : Long.parseLong(spec.substring(dash + 1));
+					if(first < 0 || last < first)
+						return null;
+					last = Math.min(last, length - 1);
+				}
+			}
+			catch(NumberFormatException e) {
+				return null;
+			}
+			if(first >= length)
+				continue;
+			ranges.add(new ByteRange(first, last));
+		}
+		return ranges;
+	}
+
+	public long getFirst() {
+		return first;
+	}
+	public long getLast() {
+		return last;
+	}
+	public long getLength() {
+		return last - first + 1;
+	}
+
+	/**
+	 * @return value of the Content-Range header of this range
+	 */
+	public String toContentRange(long length) {
+		return "bytes " + first + "-" + last + "/" + length;
+	}
+
+	@Override
+	public String toString() {
+		return first + "-" + last;
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016 SyncObjects Ltda.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syncframework.netty;
+
+/**
+ * Executes the \@Action invocations on behalf of the I/O threads, so a slow action does not stall the other 
+ * connections served by the same event loop. Strategies are selected by the <code>dispatcher</code> property
+ * of server.properties.
+ * 
+ * @author dfroz
+ */
+public interface Dispatcher {
+	/**
+	 * Schedules the task to be executed.
+	 * @throws java.util.concurrent.RejectedExecutionException when the dispatcher queue is full or shutdown.
+	 */
+	public void dispatch(Runnable task);
+	/**
+	 * @return number of tasks waiting to be executed
+	 */
+	public int getQueueDepth();
+	/**
+	 * @return highest number of tasks waiting to be executed
+	 */
+	public int getMaxQueueDepth();
+	/**
+	 * @return number of tasks dispatched
+	 */
+	public long getDispatched();
+	/**
+	 * @return number of tasks rejected
+	 */
+	public long getRejected();
+	/**
+	 * @return accumulated time, in nanoseconds, tasks waited in the queue before being executed
+	 */
+	public long getWaitTime();
+	/**
+	 * @return longest time, in nanoseconds, a task waited in the queue before being executed
+	 */
+	public long getMaxWaitTime();
+	/**
+	 * Stops accepting tasks; tasks already dispatched are executed.
+	 */
+	public void shutdown();
+}
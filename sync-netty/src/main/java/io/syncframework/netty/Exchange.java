@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016 SyncObjects Ltda.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syncframework.netty;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.codec.http.HttpRequest;
+import io.syncframework.core.Application;
+
+/**
+ * State of a single request and its response. A connection may have many exchanges in flight when requests
+ * are pipelined; each one may be handled by the I/O thread or by a worker thread of the {@link Dispatcher}.
+ * 
+ * @author dfroz
+ */
+public class Exchange {
+	private final HttpRequest request;
+	private final ResponseQueue.Slot slot;
+	private final RequestWrapper requestWrapper = new RequestWrapper();
+	private final ResponseWrapper response;
+	private Application application;
+	private String domain;
+	private boolean keepAlive;
+	// the request has been looked up among the public files, with none to be sent
+	private boolean publicFileMissing;
+
+	public Exchange(HttpRequest request, ResponseQueue.Slot slot, ByteBufAllocator allocator) {
+		this.request = request;
+		this.slot = slot;
+		this.response = new ResponseWrapper(allocator);
+	}
+
+	public void recycle() {
+		requestWrapper.recycle();
+		response.recycle();
+	}
+
+	public HttpRequest getRequest() {
+		return request;
+	}
+	public ResponseQueue.Slot getSlot() {
+		return slot;
+	}
+	public RequestWrapper getRequestWrapper() {
+		return requestWrapper;
+	}
+	public ResponseWrapper getResponse() {
+		return response;
+	}
+	public Application getApplication() {
+		return application;
+	}
+	public void setApplication(Application application) {
+		this.application = application;
+	}
+	public String getDomain() {
+		return domain;
+	}
+	public void setDomain(String domain) {
+		this.domain = domain;
+	}
+	public boolean isKeepAlive() {
+		return keepAlive;
+	}
+	public void setKeepAlive(boolean keepAlive) {
+		this.keepAlive = keepAlive;
+	}
+	public boolean isPublicFileMissing() {
+		return publicFileMissing;
+	}
+	public void setPublicFileMissing(boolean publicFileMissing) {
+		this.publicFileMissing = publicFileMissing;
+	}
+}
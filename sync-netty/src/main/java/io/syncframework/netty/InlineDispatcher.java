@@ -0,0 +1,34 @@
+/*
+ * Copyright 2016 SyncObjects Ltda.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syncframework.netty;
+
+/**
+ * Executes the tasks on the calling I/O thread. Suitable when all \@Action methods are non blocking;
+ * the queue depth is always zero and the wait time measures the dispatching overhead only.
+ * 
+ * @author dfroz
+ */
+public class InlineDispatcher extends AbstractDispatcher {
+	@Override
+	protected void execute(Runnable task) {
+		task.run();
+	}
+
+	@Override
+	public void shutdown() {
+		// nothing to release
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2016 SyncObjects Ltda.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syncframework.netty;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.syncframework.api.ApplicationContext;
+import io.syncframework.core.Application;
+import io.syncframework.core.ServerConfig;
+
+/**
+ * Per \@Application cache of the URLs handled by neither a public file nor a \@Controller, so repeated requests
+ * to them are answered Not Found without looking up the file system and the \@Controllers again.
+ *
+ * URLs are kept by their path, up to the query string, in a table of <code>notfound.cache.entries</code> slots
+ * indexed by a hash seeded at random for each process: a URL takes the place of any other URL mapped to the
+ * same slot, so the memory held is bounded regardless of the URLs requested. The paths are compared on lookup,
+ * so no URL is answered Not Found for sharing the hash of another one. URLs are known as not found for
+ * <code>notfound.cache.ttl</code> seconds.
+ *
+ * The cache is kept by the ApplicationContext, so it is discarded whenever the application restarts.
+ *
+ * @author dfroz
+ */
+public class NotFoundCache {
+	private static final String CONTEXT_KEY = NotFoundCache.class.getName();
+	// slots of the URLs not predictable by the clients requesting them
+	private static final long SEED = new SecureRandom().nextLong();
+	private final AtomicReferenceArray<Entry> entries;
+	private final long ttl;
+	private final LongAdder hits = new LongAdder();
+
+	public NotFoundCache(int maxEntries, int ttlSeconds) {
+		int capacity = 1;
+		while(capacity < maxEntries)
+			capacity <<= 1;
+		this.entries = maxEntries > 0 && ttlSeconds > 0 ? new AtomicReferenceArray<Entry>(capacity) : null;
+		this.ttl = TimeUnit.SECONDS.toNanos(ttlSeconds);
+	}
+
+	/**
+	 * @return the cache of the application, created on the first call.
+	 */
+	public static NotFoundCache get(Application application, ServerConfig config) {
+		ApplicationContext context = application.getContext();
+		NotFoundCache cache = (NotFoundCache)context.get(CONTEXT_KEY);
+		if(cache == null) {
+			cache = new NotFoundCache(config.getNotFoundCacheEntries(), config.getNotFoundCacheTtl());
+			NotFoundCache previous = (NotFoundCache)context.putIfAbsent(CONTEXT_KEY, cache);
+			if(previous != null)
+				cache = previous;
+		}
+		return cache;
+	}
+
+	/**
+	 * @return the cache of the application; null if never created
+	 */
+	public static NotFoundCache find(Application application) {
+		return (NotFoundCache)application.getContext().get(CONTEXT_KEY);
+	}
+
+	/**
+	 * @return true if the URL is known as not found; counted as a hit
+	 */
+	public boolean contains(String uri) {
+		return contains(uri, System.nanoTime());
+	}
+
+	boolean contains(String uri, long now) {
+		if(entries == null)
+			return false;
+		int length = pathLength(uri);
+		long hash = hash(uri, length);
+		Entry entry = entries.get(index(hash));
+		if(entry == null || entry.hash != hash || now - entry.added >= ttl)
+			return false;
+		if(entry.path.length() != length || !uri.regionMatches(0, entry.path, 0, length))
+			return false;
+		hits.increment();
+		return true;
+	}
+
+	/**
+	 * Records the URL as not found.
+	 */
+	public void add(String uri) {
+		add(uri, System.nanoTime());
+	}
+
+	void add(String uri, long now) {
+		if(entries == null)
+			return;
+		int length = pathLength(uri);
+		long hash = hash(uri, length);
+		entries.set(index(hash), new Entry(uri.substring(0, length), hash, now));
+	}
+
+	/**
+	 * @return number of requests answered Not Found by the cache
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	private int index(long hash) {
+		return (int)(hash ^ (hash >>> 32)) & (entries.length() - 1);
+	}
+
+	/**
+	 * @return length of the path, up to the query string
+	 */
+	private static int pathLength(String uri) {
+		int i = uri.indexOf('?');
+		return i < 0 ? uri.length() : i;
+	}
+
+	/**
+	 * FNV-1a hash of the path, starting from the seed of the process
+	 */
+	private static long hash(String uri, int length) {
+		long hash = 0xcbf29ce484222325L ^ SEED;
+		for(int i = 0; i < length; i++) {
+			hash ^= uri.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return "hits: " + hits.sum();
+	}
+
+	private static class Entry {
+		private final String path;
+		private final long hash;
+		private final long added;
+
+		private Entry(String path, long hash, long added) {
+			this.path = path;
+			this.hash = hash;
+			this.added = added;
+		}
+	}
+}
@@ -19,12 +19,13 @@ import static io.netty.buffer.Unpooled.copiedBuffer;
 import static io.netty.handler.codec.http.HttpResponseStatus.OK;
 import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.RandomAccessFile;
 import java.io.UnsupportedEncodingException;
 import java.net.InetSocketAddress;
 import java.net.URLDecoder;
+import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
@@ -34,23 +35,23 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
-import io.netty.channel.ChannelFuture;
-import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.channel.ChannelProgressiveFuture;
-import io.netty.channel.ChannelProgressiveFutureListener;
 import io.netty.channel.DefaultFileRegion;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
 import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
 import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpConstants;
+import io.netty.handler.codec.http.HttpChunkedInput;
 import io.netty.handler.codec.http.HttpContent;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaderValues;
@@ -71,8 +72,11 @@ import io.netty.handler.codec.http.multipart.HttpPostRequestDecoder.EndOfDataDec
 import io.netty.handler.codec.http.multipart.HttpPostRequestDecoder.ErrorDataDecoderException;
 import io.netty.handler.codec.http.multipart.InterfaceHttpData;
 import io.netty.handler.codec.http.multipart.InterfaceHttpData.HttpDataType;
+import io.netty.handler.codec.http2.Http2MultiplexCodec;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.stream.ChunkedNioFile;
+import io.netty.handler.timeout.IdleStateEvent;
 import io.netty.util.CharsetUtil;
-import io.netty.util.ReferenceCountUtil;
 import io.syncframework.api.ApplicationContext;
 import io.syncframework.api.FileResult;
 import io.syncframework.api.RequestContext;
@@ -85,7 +89,6 @@ import io.syncframework.core.ControllerBeanException;
 import io.syncframework.core.ControllerFactory;
 import io.syncframework.core.InterceptorBean;
 import io.syncframework.core.InterceptorBeanException;
-import io.syncframework.core.InterceptorFactory;
 import io.syncframework.core.Response;
 import io.syncframework.core.Server;
 import io.syncframework.core.Session;
@@ -99,6 +102,10 @@ import io.syncframework.util.ExceptionUtils;
  * Main request handler class. Please note that this class handles partial requests, so handling both small requests 
  * and file upload requests.
  * 
+ * The handler runs on the channel's event loop: requests are decoded, routed and static files served by the I/O
+ * thread, while \@Action invocations are handed over to the {@link Dispatcher}, unless declared as
+ * \@Action(blocking=false). Responses are always written by the event loop, in the order requests were received.
+ * 
  * @author dfroz
  */
 public class RequestHandler extends SimpleChannelInboundHandler<HttpObject> {
@@ -108,26 +115,41 @@ public class RequestHandler extends SimpleChannelInboundHandler<HttpObject> {
 	private static final String HTTP_DATE_FORMAT = "EEE, dd MMM yyyy HH:mm:ss zzz";
 	private static final String HTTP_DATE_GMT_TIMEZONE = "GMT";
 	private static final int HTTP_CACHE_SECONDS = 60;
+	private static final int HTTP2_FILE_CHUNK_SIZE = 16 * 1024;
 	// private static String charset;
 	private ChannelHandlerContext ctx;
-	private Application application;
-	private String domain;
-	private Server server;
-	private HttpRequest request;
-	private final RequestWrapper requestWrapper = new RequestWrapper();
-	private final Response response = new Response();
+	private final Server server;
+	private final Dispatcher dispatcher;
+	private final StaticContentCache contentCache;
+	private final ResponseCompressor compressor;
+	// exchange whose request body is being decoded
+	private Exchange exchange;
 	private HttpPostRequestDecoder decoder;
+	private int requests;
+	private ResponseQueue queue;
+	private boolean http2;
 	private static final HttpDataFactory factory = new DefaultHttpDataFactory(8 * 1024);
 	private static final SessionFactory sessionStateless = new SessionFactoryStatelessImpl();
 
-	public RequestHandler(Server server) {
+	public RequestHandler(Server server, Dispatcher dispatcher, StaticContentCache contentCache) {
 		this.server = server;
+		this.dispatcher = dispatcher;
+		this.contentCache = contentCache;
+		this.compressor = new ResponseCompressor(server.config());
+	}
+
+	@Override
+	public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+		this.ctx = ctx;
+		queue = new ResponseQueue(ctx, server.config().getPipeliningDepth());
+		http2 = ctx.channel() instanceof Http2StreamChannel;
 	}
 
 	@Override
 	public void channelInactive(ChannelHandlerContext ctx) throws Exception {
 		if(log.isTraceEnabled())
 			log.trace("channelInactive()");
+		queue.clear();
 		reset();
 	}
 
@@ -135,79 +157,94 @@ public class RequestHandler extends SimpleChannelInboundHandler<HttpObject> {
 	public void channelReadComplete(ChannelHandlerContext ctx) {
 		if(log.isTraceEnabled())
 			log.trace("channelReadComplete");
-//		ctx.flush();
-		reset();
+	}
+
+	@Override
+	public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+		if(evt instanceof IdleStateEvent) {
+			// keep the connection while a request is still being handled
+			if(exchange != null || !queue.isEmpty())
+				return;
+			// connections upgraded to HTTP/2 carry their requests on child streams, handled by their own handlers
+			Http2MultiplexCodec codec = ctx.pipeline().get(Http2MultiplexCodec.class);
+			if(codec != null && codec.connection().numActiveStreams() > 0)
+				return;
+			if(log.isTraceEnabled())
+				log.trace("closing idle connection: {}", ctx.channel());
+			ctx.close();
+			return;
+		}
+		super.userEventTriggered(ctx, evt);
 	}
 
 	@Override
 	protected void channelRead0(ChannelHandlerContext ctx, HttpObject msg)
 			throws Exception {
-		this.ctx = ctx;
-
 		if(msg instanceof HttpRequest) {
-			this.request = (HttpRequest)msg;
+			if(queue.isClosed()) {
+				// a previous request closes the connection; requests pipelined after it are dropped
+				if(log.isTraceEnabled())
+					log.trace("connection closing; discarding pipelined request");
+				return;
+			}
+			HttpRequest request = (HttpRequest)msg;
+			Exchange x = new Exchange(request, queue.add(), ctx.alloc());
+
+			//
+			// decide whether the connection is kept open after this request's response.
+			//
+			requests++;
+			int maxRequests = server.config().getKeepAliveMaxRequests();
+			x.setKeepAlive(server.config().getKeepAlive() && HttpUtil.isKeepAlive(request) 
+					&& (maxRequests <= 0 || requests < maxRequests));
 
 			//
 			// Verify application's domain. This is a common code to both static and dynamic request handlers... 
 			// This may save CPU cycles if there is no domain responsible for the request.
 			//
-			domain = getDomain(request);
-			application = ApplicationManager.getApplication(domain);
+			String domain = getDomain(request);
+			Application application = ApplicationManager.getApplication(domain);
 			if(application == null) {
 				if(log.isTraceEnabled())
 					log.trace("no application found responsible for domain: {}", domain);
-				sendFileNotFound(ctx);
+				sendFileNotFound(x);
 				return;
 			}
+			x.setDomain(domain);
+			x.setApplication(application);
 
 			// check if GET, DELETE, HEAD... shall be treated as no body to be parsed / loaded
 			// so direct handling by the code with no further processing from the content payload.
-			if(this.request.method().equals(HttpMethod.GET) || 
-					this.request.method().equals(HttpMethod.DELETE) ||
-					this.request.method().equals(HttpMethod.HEAD)) {
+			if(request.method().equals(HttpMethod.GET) || 
+					request.method().equals(HttpMethod.DELETE) ||
+					request.method().equals(HttpMethod.HEAD)) {
 				boolean xsc = false;
 				if(server.config().getTrustedProxyMode()) {
-					xsc = this.request.headers().getAsString(SYNC_CLIENT_HEADER) != null ? true: false;
+					xsc = request.headers().getAsString(SYNC_CLIENT_HEADER) != null ? true: false;
 				}
 				if(log.isTraceEnabled())
 					log.trace("Proxied request? {}", xsc);
-				if(xsc) {
-					// this point forward we translate the request into sync.Request...
-					requestWrapper.setRequest(this.request);
-					requestWrapper.getRequestContext().put(RequestContext.VERB, this.request.method().toString());
-					requestWrapper.getRequestContext().put(RequestContext.DOMAIN, domain);
-					requestWrapper.getRequestContext().put(RequestContext.METHOD, this.request.method().asciiName());
-					requestWrapper.getRequestContext().put(RequestContext.URL, this.request.uri());
-					requestWrapper.getRequestContext().put(RequestContext.REMOTE_ADDRESS,
-							this.request.headers().getAsString(SYNC_CLIENT_HEADER));
-
-					if(handleRequestDynamically(ctx)) {
-						// no need to continue as the action has been taken by the application
-						return;
-					}
+				if(NotFoundCache.get(application, server.config()).contains(request.uri())) {
+					if(log.isTraceEnabled())
+						log.trace("{}: request {} known as not found", application, request.uri());
+					sendFileNotFound(x);
+					return;
 				}
-				else {
-					if(handleRequestStatically(ctx)) {
-						// no need to continue as the static file has been served
-						return;
-					}
-
-					requestWrapper.setRequest(this.request);
-					requestWrapper.getRequestContext().put(RequestContext.VERB, this.request.method().toString());
-					requestWrapper.getRequestContext().put(RequestContext.DOMAIN, domain);
-					requestWrapper.getRequestContext().put(RequestContext.METHOD, this.request.method().asciiName());
-					requestWrapper.getRequestContext().put(RequestContext.URL, this.request.uri());
-					// We already verified the SYNC_CLIENT_HEADER header and it is not available...
-					InetSocketAddress isa = (InetSocketAddress)ctx.channel().remoteAddress();
-					requestWrapper.getRequestContext().put(RequestContext.REMOTE_ADDRESS, isa.getHostString());
-
-					if(handleRequestDynamically(ctx)) {
-						// no need to continue as the page has been delivered
+				try {
+					if(!xsc && handleRequestStatically(x)) {
+						// no need to continue as the static file has been served by the I/O thread
 						return;
 					}
 				}
-
-				sendFileNotFound(ctx);
+				catch(Exception e) {
+					x.setKeepAlive(false);
+					sendException(x, e);
+					return;
+				}
+				
+				// this point forward we translate the request into sync.Request...
+				setRequest(x, xsc);
+				dispatch(x);
 				return;
 			}
 
@@ -219,9 +256,12 @@ public class RequestHandler extends SimpleChannelInboundHandler<HttpObject> {
 			} catch (ErrorDataDecoderException e1) {
 				// e1.printStackTrace();
 				log.error("failed to decode HTTP post request", e1);
-				sendError(ctx, HttpResponseStatus.BAD_REQUEST);
+				// the remaining of the request body cannot be trusted... close the connection
+				x.setKeepAlive(false);
+				sendError(x, HttpResponseStatus.BAD_REQUEST);
 				return;
-			}			
+			}
+			exchange = x;
 		}
 
 		if(decoder != null) {
@@ -231,7 +271,9 @@ public class RequestHandler extends SimpleChannelInboundHandler<HttpObject> {
 					decoder.offer(chunk);
 				} catch(Exception e) {
 					log.error("failed to decode HTTP post request", e);
-					sendError(ctx, HttpResponseStatus.BAD_REQUEST);
+					Exchange x = reset();
+					x.setKeepAlive(false);
+					sendError(x, HttpResponseStatus.BAD_REQUEST);
 					return;
 				}
 
@@ -239,7 +281,9 @@ public class RequestHandler extends SimpleChannelInboundHandler<HttpObject> {
 					readHttpDataChunkByChunk();
 				}
 				catch(Exception e) {
-					sendException(ctx, e);
+					Exchange x = reset();
+					x.setKeepAlive(false);
+					sendException(x, e);
 					return;
 				}
 
@@ -248,45 +292,40 @@ public class RequestHandler extends SimpleChannelInboundHandler<HttpObject> {
 					if(log.isTraceEnabled())
 						log.trace("last http request chunk identified; handling request...");
 
-					// this point forward we translate the request into sas.Request...
-					requestWrapper.setRequest(this.request);
-					requestWrapper.getRequestContext().put(RequestContext.VERB, this.request.method().toString());
-					requestWrapper.getRequestContext().put(RequestContext.DOMAIN, domain);
-					requestWrapper.getRequestContext().put(RequestContext.METHOD, this.request.method().asciiName());
-					requestWrapper.getRequestContext().put(RequestContext.URL, this.request.uri());
+					// the body has been fully decoded; the decoder is released before the action is taken
+					Exchange x = reset();
 
 					boolean xsc = false;
 					if(server.config().getTrustedProxyMode()) {
-						xsc = this.request.headers().getAsString(SYNC_CLIENT_HEADER) != null ? true: false;
+						xsc = x.getRequest().headers().getAsString(SYNC_CLIENT_HEADER) != null ? true: false;
 					}
 					if(log.isTraceEnabled())
 						log.trace("Proxied request? {}", xsc);
-					if(xsc) {
-						requestWrapper.getRequestContext().put(RequestContext.REMOTE_ADDRESS,
-								this.request.headers().getAsString(SYNC_CLIENT_HEADER));
-					}
-					else {
-						InetSocketAddress isa = (InetSocketAddress)ctx.channel().remoteAddress();
-						requestWrapper.getRequestContext().put(RequestContext.REMOTE_ADDRESS, isa.getHostString());
-					}
-					if(handleRequestDynamically(ctx)) {
-						// no need to continue as the action has been taken by the application
-						return;
-					}
-					sendFileNotFound(ctx);
+
+					// this point forward we translate the request into sas.Request...
+					setRequest(x, xsc);
+					dispatch(x);
 					return;
 				}
 			}
 		}
 		else {
-			sendFileNotFound(ctx);
+			//
+			// content from a request already responded (such as the empty last content of GET requests
+			// or the body of a rejected request) is just discarded.
+			//
+			if(log.isTraceEnabled())
+				log.trace("discarding content not bound to any request being decoded");
 			return;
 		}
 	}
 
 	@Override
 	public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
-		sendException(ctx, cause);
+		Exchange x = reset();
+		if(x != null)
+			x.setKeepAlive(false);
+		sendException(x, cause);
 	}
 
 	/**
@@ -304,7 +343,7 @@ public class RequestHandler extends SimpleChannelInboundHandler<HttpObject> {
 						if (data.getHttpDataType() == HttpDataType.Attribute) {
 							Attribute attribute = (Attribute) data;
 							String value = attribute.getValue();
-							Map<String, List<String>> parameters = requestWrapper.getParameters();
+							Map<String, List<String>> parameters = exchange.getRequestWrapper().getParameters();
 							List<String> values = parameters.get(attribute.getName());
 							if(values == null)
 								values = new LinkedList<String>();
@@ -325,7 +364,7 @@ public class RequestHandler extends SimpleChannelInboundHandler<HttpObject> {
 
 								// in this case we shall place the file to the <application>/tmp directory
 
-								String domain = this.request.headers().getAsString(HttpHeaderNames.HOST);
+								String domain = exchange.getRequest().headers().getAsString(HttpHeaderNames.HOST);
 								if(log.isTraceEnabled())
 									log.trace("request host: {}", domain);
 								int p = domain.indexOf(':');
@@ -356,7 +395,7 @@ public class RequestHandler extends SimpleChannelInboundHandler<HttpObject> {
 								fu.setName(fileUpload.getFilename());
 								fu.setType(fileUpload.getContentType());
 								fu.setFile(new File(tmpDirectoryPath, fileUpload.getFilename()));								
-								requestWrapper.getFiles().put(fileUpload.getName(), fu);
+								exchange.getRequestWrapper().getFiles().put(fileUpload.getName(), fu);
 							} else {
 								log.error("file yet to be completed but should not");
 							}
@@ -366,6 +405,8 @@ public class RequestHandler extends SimpleChannelInboundHandler<HttpObject> {
 						}
 					}
 					finally {
+						// released here; the decoder shall not release it once again when destroyed
+						decoder.removeHttpDataFromClean(data);
 						data.release();
 					}
 				}
@@ -376,10 +417,12 @@ public class RequestHandler extends SimpleChannelInboundHandler<HttpObject> {
 		}
 	}
 
-	private boolean handleRequestStatically(ChannelHandlerContext ctx) throws Exception {
+	private boolean handleRequestStatically(Exchange x) throws Exception {
 		if(log.isTraceEnabled())
 			log.trace("handling request statically");
 
+		Application application = x.getApplication();
+		HttpRequest request = x.getRequest();
 		if(log.isTraceEnabled()) {
 			log.trace("handling request to: {}:{}", application, request.uri());
 		}
@@ -389,42 +432,120 @@ public class RequestHandler extends SimpleChannelInboundHandler<HttpObject> {
 			// file not found
 			if(log.isInfoEnabled())
 				log.info("{}: no path found for request uri: {}", application, request.uri());
+			x.setPublicFileMissing(true);
 			return false;
 		}
 
 		File file = new File(application.getConfig().getPublicDirectory(), path);
-		response.setApplication(application);
-		response.setFile(file);
+		x.getResponse().setApplication(application);
+		x.getResponse().setFile(file);
 
-		return sendFile(ctx, response);
+		if(sendFile(x))
+			return true;
+		x.setPublicFileMissing(true);
+		return false;
 	}
 
-	private boolean handleRequestDynamically(ChannelHandlerContext ctx) throws Exception {
-		if(log.isTraceEnabled())
-			log.trace("handling request dynamically");
-
-		Thread.currentThread().setContextClassLoader(application.getClassLoader());
+	/**
+	 * Populates the sync.Request from the HTTP request.
+	 * @param xsc request proxied by a trusted proxy informing the client address
+	 */
+	private void setRequest(Exchange x, boolean xsc) {
+		HttpRequest request = x.getRequest();
+		RequestWrapper requestWrapper = x.getRequestWrapper();
+		requestWrapper.setRequest(request);
+		requestWrapper.getRequestContext().put(RequestContext.VERB, request.method().toString());
+		requestWrapper.getRequestContext().put(RequestContext.DOMAIN, x.getDomain());
+		requestWrapper.getRequestContext().put(RequestContext.METHOD, request.method().asciiName());
+		requestWrapper.getRequestContext().put(RequestContext.URL, request.uri());
+		if(xsc) {
+			requestWrapper.getRequestContext().put(RequestContext.REMOTE_ADDRESS,
+					request.headers().getAsString(SYNC_CLIENT_HEADER));
+		}
+		else {
+			InetSocketAddress isa = (InetSocketAddress)ctx.channel().remoteAddress();
+			requestWrapper.getRequestContext().put(RequestContext.REMOTE_ADDRESS, isa.getHostString());
+		}
+	}
 
+	/**
+	 * Routes the request to its \@Controller on the I/O thread, then executes the \@Action inline when declared
+	 * as non blocking, or hands it over to the dispatcher otherwise.
+	 */
+	private void dispatch(final Exchange x) {
 		final ControllerBean controller = new ControllerBean();
-		ControllerFactory controllerFactory = application.getControllerFactory();
-		if(!controllerFactory.find(controller, request.uri())) {
+		final ControllerFactory controllerFactory = x.getApplication().getControllerFactory();
+		try {
+			if(!controllerFactory.find(controller, x.getRequest().uri())) {
+				if(log.isTraceEnabled())
+					log.trace("no @Controller found to handle request: {}", x.getRequest().uri());
+				// known as not found only when no public file may answer the same URL
+				if(x.isPublicFileMissing())
+					NotFoundCache.get(x.getApplication(), server.config()).add(x.getRequest().uri());
+				// lead to not found
+				sendFileNotFound(x);
+				return;
+			}
+		}
+		catch(Throwable t) {
+			x.setKeepAlive(false);
+			sendException(x, t);
+			return;
+		}
+
+		Runnable task = new Runnable() {
+			@Override
+			public void run() {
+				try {
+					if(!handleRequestDynamically(x, controller))
+						sendFileNotFound(x);
+				}
+				catch(Throwable t) {
+					x.setKeepAlive(false);
+					sendException(x, t);
+				}
+				finally {
+					controllerFactory.release(controller);
+				}
+			}
+		};
+
+		if(!controller.blocking()) {
 			if(log.isTraceEnabled())
-				log.trace("no @Controller found to handle request: {}", request.uri());
-			// lead to not found
-			return false;
+				log.trace("@Controller {} non blocking action; executing on the I/O thread", controller);
+			task.run();
+			return;
+		}
+		try {
+			dispatcher.dispatch(task);
 		}
+		catch(RejectedExecutionException e) {
+			log.warn("{}: request {} rejected; {}", x.getApplication(), x.getRequest().uri(), dispatcher);
+			controllerFactory.release(controller);
+			sendError(x, HttpResponseStatus.SERVICE_UNAVAILABLE);
+		}
+	}
+
+	private boolean handleRequestDynamically(Exchange x, ControllerBean controller) throws Exception {
+		if(log.isTraceEnabled())
+			log.trace("handling request dynamically");
+
+		Application application = x.getApplication();
+		RequestWrapper requestWrapper = x.getRequestWrapper();
+		Response response = x.getResponse();
+		Thread.currentThread().setContextClassLoader(application.getClassLoader());
 
 		SessionFactory sessionFactory = application.getSessionFactory();
 		if(sessionFactory == null) {
 			log.error("application malfunction detected; SessionFactory is null");
-			sendError(ctx, HttpResponseStatus.INTERNAL_SERVER_ERROR);
+			sendError(x, HttpResponseStatus.INTERNAL_SERVER_ERROR);
 			return true;
 		}
 
 		ResponderFactory responderFactory = application.getResponderFactory();
 		if(responderFactory == null) {
 			log.error("application malfunction detected; ResponderFactory is null");
-			sendError(ctx, HttpResponseStatus.INTERNAL_SERVER_ERROR);
+			sendError(x, HttpResponseStatus.INTERNAL_SERVER_ERROR);
 			return true;
 		}
 
@@ -442,8 +563,7 @@ public class RequestHandler extends SimpleChannelInboundHandler<HttpObject> {
 		response.setSession(session);
 		response.setApplication(application);
 		
-		InterceptorFactory interceptorFactory = application.getInterceptorFactory();
-		InterceptorBean interceptors[] = interceptorFactory.find(controller.interceptedBy());
+		InterceptorBean interceptors[] = controller.interceptors();
 		if(interceptors != null) {
 			for(int i=0; i < interceptors.length; i++) {
 				//
@@ -457,16 +577,16 @@ public class RequestHandler extends SimpleChannelInboundHandler<HttpObject> {
 					Responder responder = responderFactory.find(interceptorResult);
 					if(responder == null) {
 						log.error("no responder encountered to handle result: "+interceptorResult);
-						sendError(ctx, HttpResponseStatus.INTERNAL_SERVER_ERROR);
+						sendError(x, HttpResponseStatus.INTERNAL_SERVER_ERROR);
 						return true;
 					}
 					responder.respond(response, interceptors[i], interceptorResult);
 					if(log.isTraceEnabled())
 						log.trace(interceptors[i]+".before() returned result: "+interceptorResult);
 					if(interceptorResult instanceof FileResult)
-						return sendFile(ctx, response);
+						return sendFile(x);
 					else
-						return sendResponse(ctx, response);
+						return sendResponse(x);
 				}
 			}
 		}
@@ -497,16 +617,16 @@ public class RequestHandler extends SimpleChannelInboundHandler<HttpObject> {
 					Responder responder = responderFactory.find(interceptorResult);
 					if(responder == null) {
 						log.error("no responder encountered to handle result: "+interceptorResult);
-						sendError(ctx, HttpResponseStatus.INTERNAL_SERVER_ERROR);
+						sendError(x, HttpResponseStatus.INTERNAL_SERVER_ERROR);
 						return true;
 					}
 					if(log.isTraceEnabled())
 						log.trace(interceptors[i]+".after() returned result: "+interceptorResult);
 					responder.respond(response, interceptors[i], interceptorResult);
 					if(interceptorResult instanceof FileResult)
-						return sendFile(ctx, response);
+						return sendFile(x);
 					else
-						return sendResponse(ctx, response);
+						return sendResponse(x);
 				}
 			}
 		}
@@ -517,7 +637,7 @@ public class RequestHandler extends SimpleChannelInboundHandler<HttpObject> {
 		Responder responder = responderFactory.find(result);
 		if(responder == null) {
 			log.error("no responder encountered to handle result: "+result);
-			sendError(ctx, HttpResponseStatus.INTERNAL_SERVER_ERROR);
+			sendError(x, HttpResponseStatus.INTERNAL_SERVER_ERROR);
 			return true;
 		}
 		responder.respond(response, controller, result);
@@ -526,187 +646,361 @@ public class RequestHandler extends SimpleChannelInboundHandler<HttpObject> {
 			log.trace("{}: {} delivered response: {}", application, responder, result);
 
 		if(result instanceof FileResult)
-			return sendFile(ctx, response);
+			return sendFile(x);
 		else
-			return sendResponse(ctx, response);
+			return sendResponse(x);
 	}
 
-	private boolean sendResponse(ChannelHandlerContext ctx, Response response) throws Exception {
+	private boolean sendResponse(Exchange x) throws Exception {
+		ResponseWrapper response = x.getResponse();
 		HttpResponseStatus responseStatus = HttpResponseStatus.valueOf(response.getStatus());
-		ByteArrayOutputStream bos = (ByteArrayOutputStream)response.getOutputStream();
-		ByteBuf buf = copiedBuffer(bos.toByteArray());
+		// the body buffer goes straight to the HTTP response, which releases it once written
+		ByteBuf buf = response.content();
 
 		// Build the response object.
 		FullHttpResponse httpResponse = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, responseStatus, buf);
-		httpResponse.headers().set(HttpHeaderNames.SERVER, SERVER_HEADER_VALUE);
-		// default content-type header... likely to be overwritten by the Result Content-Type header...
-		httpResponse.headers().set(HttpHeaderNames.CONTENT_TYPE, "text/html; charset=UTF-8");
-		httpResponse.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
-		httpResponse.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, buf.readableBytes());
+		try {
+			httpResponse.headers().set(HttpHeaderNames.SERVER, SERVER_HEADER_VALUE);
+			// default content-type header... likely to be overwritten by the Result Content-Type header...
+			httpResponse.headers().set(HttpHeaderNames.CONTENT_TYPE, "text/html; charset=UTF-8");
+			httpResponse.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, buf.readableBytes());
 
-		//
-		// if response has declared specific Headers, then this may or may not override the default headers
-		// declared above.
-		//
-		if(response.getHeaders() != null) {
-			if(log.isTraceEnabled())
-				log.trace("custom response headers identified... passing to the response");
-			for(String header: response.getHeaders().keySet()) {
+			//
+			// if response has declared specific Headers, then this may or may not override the default headers
+			// declared above.
+			//
+			if(response.getHeaders() != null) {
 				if(log.isTraceEnabled())
-					log.trace("setting response header: {}: {}", header, response.getHeaders().get(header));
-				httpResponse.headers().set(header, response.getHeaders().get(header));
+					log.trace("custom response headers identified... passing to the response");
+				for(String header: response.getHeaders().keySet()) {
+					if(log.isTraceEnabled())
+						log.trace("setting response header: {}: {}", header, response.getHeaders().get(header));
+					httpResponse.headers().set(header, response.getHeaders().get(header));
+				}
 			}
+
+			// compressed after the custom headers, which may set Content-Type or Content-Encoding
+			httpResponse = compressor.compress(x.getApplication().getConfig(), x.getRequest(), httpResponse, ctx.alloc());
+
+			setConnectionHeader(x, httpResponse);
+		}
+		catch(RuntimeException e) {
+			httpResponse.release();
+			throw e;
 		}
 
 		// Write the response.
-		ctx.channel().writeAndFlush(httpResponse).addListener(ChannelFutureListener.CLOSE);
+		complete(x, httpResponse);
 
 		return true;
 	}
 
-	private boolean sendFile(ChannelHandlerContext ctx, Response response) throws Exception {
+	private boolean sendFile(Exchange x) throws Exception {
+		return sendFile(x, false);
+	}
+
+	/**
+	 * @param revalidated whether the entry of the file has just been resolved again
+	 */
+	private boolean sendFile(Exchange x, boolean revalidated) throws Exception {
+		Response response = x.getResponse();
 		Application application = response.getApplication();
 		if(application == null) {
 			log.error("no response.application has been set");
-			sendError(ctx, HttpResponseStatus.INTERNAL_SERVER_ERROR);
+			sendError(x, HttpResponseStatus.INTERNAL_SERVER_ERROR);
 			return true;
 		}
 
 		File file = response.getFile();
 		if(file == null) {
 			log.error("no response.file has been set");
-			sendError(ctx, HttpResponseStatus.INTERNAL_SERVER_ERROR);
+			sendError(x, HttpResponseStatus.INTERNAL_SERVER_ERROR);
 			return true;
 		}
-		if(!file.exists()) {
+		StaticFileCache cache = StaticFileCache.get(application, server.config());
+		StaticFileCache.Entry entry = cache.lookup(file);
+		switch(entry.getStatus()) {
+		case NOT_FOUND:
 			// file not found try request dynamically
 			if(log.isDebugEnabled())
 				log.debug("{}: file not found: {}", application, file);
 			return false;
-		}
-		if(file.isHidden()) {
+		case HIDDEN:
 			if(log.isDebugEnabled()) {
 				log.debug("{}: file {} is hidden; returning File Not Found", 
 						application, file.getAbsolutePath());
 			}
-			sendFileNotFound(ctx);
+			sendFileNotFound(x);
 			return true;
-		}
-		if(file.isDirectory()) {
+		case DIRECTORY:
 			// once is a directory a dynamic handler can take it ...
 			// even if a index.html, the @Action Controller.main() shall handle it
 			return false;
-		}
-		if(!file.isFile()) {
-			sendError(ctx, HttpResponseStatus.FORBIDDEN);
+		case FORBIDDEN:
+			sendError(x, HttpResponseStatus.FORBIDDEN);
 			return true;
+		default:
+			break;
 		}
+		File requested = file;
+		file = entry.getFile();
+
 		// Cache
-		String ifModifiedSince = request.headers().get(HttpHeaderNames.IF_MODIFIED_SINCE);
-		if(ifModifiedSince != null && !ifModifiedSince.isEmpty()) {
-			SimpleDateFormat dateFormatter = new SimpleDateFormat(HTTP_DATE_FORMAT, Locale.US);
-			Date ifModifiedSinceDate  = dateFormatter.parse(ifModifiedSince);
-			long ifModifiedSinceDateSeconds = ifModifiedSinceDate.getTime() / 1000;
-			long fileLastModifiedSeconds = file.lastModified() / 1000;
-			if(ifModifiedSinceDateSeconds == fileLastModifiedSeconds) {
-				sendNotModified(ctx);
-				return true;
-			}
-		}
-		
-		//
-		// Check if the file resides under the PUBLIC or PRIVATE folders. 
-		// More important point for this verification is with PUBLIC requests where multiples ../../../..
-		// may lead to security breach - exposing unwanted system files.
-		//
-		String path = file.getAbsolutePath();
-		if(!path.startsWith(application.getConfig().getPublicDirectory().getAbsolutePath())
-				&& !path.startsWith(application.getConfig().getPrivateDirectory().getAbsolutePath())) {
-			log.error("{}: file {} returned, is not located under Public or Private folders", 
-					application, file.getAbsolutePath());
-			sendError(ctx, HttpResponseStatus.FORBIDDEN);
+		HttpRequest request = x.getRequest();
+		if(isNotModified(request, entry)) {
+			sendNotModified(x, entry);
 			return true;
 		}
 
-		@SuppressWarnings("resource")
-		RandomAccessFile raf = new RandomAccessFile(file, "r");
-		long fileLength = raf.length();
-
-		if(log.isTraceEnabled())
-			log.trace("{}: returning file: {}", application, file);
+		// Range requests are honored only if the file has not changed since the validator of If-Range
+		String range = request.headers().get(HttpHeaderNames.RANGE);
+		if(range != null && (request.method() != HttpMethod.GET || !isRangeValid(request, entry)))
+			range = null;
 
-		HttpResponse httpResponse = new DefaultHttpResponse(HTTP_1_1, OK);
-		HttpUtil.setContentLength(httpResponse, fileLength);
-		httpResponse.headers().set(HttpHeaderNames.SERVER, SERVER_HEADER_VALUE);
-		httpResponse.headers().set(HttpHeaderNames.CONTENT_TYPE, MimeUtils.getContentType(file));
-		setDateAndCacheHeaders(httpResponse, file);
-		//
-		// if response has declared specific Headers, then this may or may not override the default headers
-		// declared above.
-		//
-		if(response.getHeaders() != null && response.getHeaders().size() == 0) {
-			if(log.isTraceEnabled())
-				log.trace("custom response headers identified... passing to the response");
-			for(String header: response.getHeaders().keySet()) {
-				if(log.isTraceEnabled())
-					log.trace("setting response header: {}: {}", header, response.getHeaders().get(header));
-				httpResponse.headers().set(header, response.getHeaders().get(header));
+		// small public files are served from memory
+		ByteBuf content = range == null ? contentCache.get(entry) : null;
+		RandomAccessFile raf = null;
+		if(content == null) {
+			try {
+				raf = new RandomAccessFile(file, "r");
+			}
+			catch(FileNotFoundException e) {
+				// removed since cached
+				if(log.isDebugEnabled())
+					log.debug("{}: file not found: {}", application, file);
+				return false;
 			}
 		}
-		// connection is always CLOSE...
-		httpResponse.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
-		
-		// Write the initial line and the header.
-		ctx.write(httpResponse);
 
-		// Write the content.
-		ChannelFuture sendFileFuture;
-		ChannelFuture lastContentFuture;
+		// the file and the content are released here unless handed over to the response
+		HttpResponse httpResponse;
+		long fileLength;
+		List<ByteRange> ranges = null;
+		Object body = null;
+		try {
+			if(content != null) {
+				fileLength = content.readableBytes();
+			}
+			else {
+				fileLength = raf.length();
+				if(fileLength != entry.getLength() && !revalidated) {
+					// modified since cached: the validators, the ranges and the length shall all describe the file sent
+					raf.close();
+					if(log.isDebugEnabled())
+						log.debug("{}: file modified since cached: {}", application, file);
+					cache.revalidate(requested);
+					return sendFile(x, true);
+				}
+			}
 
-		sendFileFuture = ctx.write(new DefaultFileRegion(raf.getChannel(), 0, fileLength), ctx.newProgressivePromise());
-		lastContentFuture = ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
-		// Close the connection when the whole content is written out.
-		lastContentFuture.addListener(ChannelFutureListener.CLOSE);
+			if(range != null) {
+				ranges = ByteRange.parse(range, fileLength);
+				if(ranges != null && ranges.isEmpty()) {
+					raf.close();
+					sendRangeNotSatisfiable(x, fileLength);
+					return true;
+				}
+				if(ranges != null && ranges.size() > 1 && http2) {
+					// multipart bodies are composed of file regions, which HTTP/2 streams cannot carry
+					ranges = null;
+				}
+			}
 
-		sendFileFuture.addListener(new ChannelProgressiveFutureListener() {
-			@Override
-			public void operationProgressed(ChannelProgressiveFuture future, long progress, long total) {
-				if (total < 0) { // total unknown
-					if(log.isTraceEnabled())
-						log.trace("{}: "+future.channel() + " transfer progress: " + progress, application);
-				} else {
+			if(log.isTraceEnabled()) {
+				log.trace("{}: returning file: {}{}{}", application, file, content != null ? " from memory" : "",
+						ranges != null ? "; ranges: " + ranges : "");
+			}
+
+			if(content != null)
+				httpResponse = new DefaultFullHttpResponse(HTTP_1_1, OK, content);
+			else
+				httpResponse = new DefaultHttpResponse(HTTP_1_1, ranges != null ? HttpResponseStatus.PARTIAL_CONTENT : OK);
+			httpResponse.headers().set(HttpHeaderNames.SERVER, SERVER_HEADER_VALUE);
+			httpResponse.headers().set(HttpHeaderNames.CONTENT_TYPE, entry.getContentType());
+			httpResponse.headers().set(HttpHeaderNames.ACCEPT_RANGES, HttpHeaderValues.BYTES);
+			httpResponse.headers().set(HttpHeaderNames.ETAG, entry.getETag());
+			setDateAndCacheHeaders(httpResponse, entry.getLastModified());
+			//
+			// if response has declared specific Headers, then this may or may not override the default headers
+			// declared above.
+			//
+			if(response.getHeaders() != null && !response.getHeaders().isEmpty()) {
+				if(log.isTraceEnabled())
+					log.trace("custom response headers identified... passing to the response");
+				for(String header: response.getHeaders().keySet()) {
 					if(log.isTraceEnabled())
-						log.trace("{}: "+future.channel() + " transfer progress: " + progress + " / " + total, application);
+						log.trace("setting response header: {}: {}", header, response.getHeaders().get(header));
+					httpResponse.headers().set(header, response.getHeaders().get(header));
 				}
 			}
+			setConnectionHeader(x, httpResponse);
 
-			@Override
-			public void operationComplete(ChannelProgressiveFuture future) {
-				if(log.isTraceEnabled())
-					log.trace("{}: "+future.channel() + " transfer complete.", application);
+			if(content != null) {
+				HttpUtil.setContentLength(httpResponse, fileLength);
+			}
+			else if(ranges != null && ranges.size() > 1) {
+				// each part opens the file on its own
+				raf.close();
 			}
-		});
+			else {
+				long offset = 0;
+				long length = fileLength;
+				if(ranges != null) {
+					ByteRange r = ranges.get(0);
+					httpResponse.headers().set(HttpHeaderNames.CONTENT_RANGE, r.toContentRange(fileLength));
+					offset = r.getFirst();
+					length = r.getLength();
+				}
+				HttpUtil.setContentLength(httpResponse, length);
+				if(http2) {
+					// HTTP/2 streams carry DATA frames only; the file is read in chunks written as the stream 
+					// flow control window allows.
+					body = new HttpChunkedInput(new ChunkedNioFile(raf.getChannel(), offset, length, HTTP2_FILE_CHUNK_SIZE));
+				}
+				else {
+					body = new DefaultFileRegion(raf.getChannel(), offset, length);
+				}
+			}
+		}
+		catch(Exception e) {
+			if(raf != null)
+				try { raf.close(); } catch(Exception ignore) {}
+			if(content != null)
+				content.release();
+			throw e;
+		}
+
+		// Write the initial line and the header, the content and the end of the response.
+		// The connection is closed when the whole content is written out, unless kept alive.
+		if(content != null)
+			complete(x, httpResponse);
+		else if(body == null)
+			sendByteRanges(x, httpResponse, file, fileLength, ranges);
+		else if(http2)
+			complete(x, httpResponse, body);
+		else
+			complete(x, httpResponse, body, LastHttpContent.EMPTY_LAST_CONTENT);
 
 		return true;
 	}
 
-	private void sendFileNotFound(ChannelHandlerContext ctx) {
-		sendError(ctx, HttpResponseStatus.NOT_FOUND);
+	/**
+	 * Sends a multipart/byteranges body: each part is a file region of its own, preceded by its headers.
+	 */
+	private void sendByteRanges(Exchange x, HttpResponse httpResponse, File file, long fileLength, List<ByteRange> ranges) {
+		String boundary = Long.toHexString(ThreadLocalRandom.current().nextLong());
+		String contentType = httpResponse.headers().get(HttpHeaderNames.CONTENT_TYPE);
+		httpResponse.headers().set(HttpHeaderNames.CONTENT_TYPE, "multipart/byteranges; boundary=" + boundary);
+
+		Object messages[] = new Object[2 * ranges.size() + 2];
+		messages[0] = httpResponse;
+		long length = 0;
+		int i = 1;
+		for(ByteRange r: ranges) {
+			StringBuilder sb = new StringBuilder();
+			sb.append(i > 1 ? "\r\n--" : "--").append(boundary).append("\r\n");
+			if(contentType != null)
+				sb.append(HttpHeaderNames.CONTENT_TYPE).append(": ").append(contentType).append("\r\n");
+			sb.append(HttpHeaderNames.CONTENT_RANGE).append(": ").append(r.toContentRange(fileLength)).append("\r\n\r\n");
+			ByteBuf part = copiedBuffer(sb, CharsetUtil.US_ASCII);
+			length += part.readableBytes() + r.getLength();
+			messages[i++] = part;
+			// regions open the file on their own as each one closes it once written
+			messages[i++] = new DefaultFileRegion(file, r.getFirst(), r.getLength());
+		}
+		ByteBuf end = copiedBuffer("\r\n--" + boundary + "--\r\n", CharsetUtil.US_ASCII);
+		length += end.readableBytes();
+		messages[i] = new DefaultLastHttpContent(end);
+		HttpUtil.setContentLength(httpResponse, length);
+
+		complete(x, messages);
 	}
 
-	private void sendError(ChannelHandlerContext ctx, HttpResponseStatus status) {
+	/**
+	 * Evaluates If-None-Match or, when absent, If-Modified-Since against the current version of the file.
+	 */
+	private static boolean isNotModified(HttpRequest request, StaticFileCache.Entry entry) {
+		String ifNoneMatch = request.headers().get(HttpHeaderNames.IF_NONE_MATCH);
+		if(ifNoneMatch != null) {
+			// weak comparison
+			String etag = opaqueTag(entry.getETag());
+			for(String tag: ifNoneMatch.split(",")) {
+				tag = tag.trim();
+				if(tag.equals("*") || opaqueTag(tag).equals(etag))
+					return true;
+			}
+			return false;
+		}
+		Date ifModifiedSince = parseDate(request.headers().get(HttpHeaderNames.IF_MODIFIED_SINCE));
+		if(ifModifiedSince == null)
+			return false;
+		return entry.getLastModified() / 1000 <= ifModifiedSince.getTime() / 1000;
+	}
+
+	/**
+	 * Evaluates If-Range: ranges are sent only if its strong entity tag or its date matches the current version 
+	 * of the file; otherwise the whole file is sent.
+	 */
+	private static boolean isRangeValid(HttpRequest request, StaticFileCache.Entry entry) {
+		String ifRange = request.headers().get(HttpHeaderNames.IF_RANGE);
+		if(ifRange == null)
+			return true;
+		ifRange = ifRange.trim();
+		if(ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+			// strong comparison
+			return !entry.isWeakETag() && ifRange.equals(entry.getETag());
+		}
+		Date date = parseDate(ifRange);
+		return date != null && date.getTime() / 1000 == entry.getLastModified() / 1000;
+	}
+
+	private static String opaqueTag(String etag) {
+		return etag.startsWith("W/") ? etag.substring(2) : etag;
+	}
+
+	/**
+	 * @return date of a header; null if absent or invalid
+	 */
+	private static Date parseDate(String value) {
+		if(value == null || value.isEmpty())
+			return null;
+		SimpleDateFormat dateFormatter = new SimpleDateFormat(HTTP_DATE_FORMAT, Locale.US);
+		try { return dateFormatter.parse(value); }
+		catch(ParseException ignore) {
+			// invalid dates are ignored
+			return null;
+		}
+	}
+
+	private void sendRangeNotSatisfiable(Exchange x, long fileLength) {
+		if(log.isTraceEnabled())
+			log.trace("sendRangeNotSatisfiable file");
+		FullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+		response.headers().set(HttpHeaderNames.SERVER, SERVER_HEADER_VALUE);
+		response.headers().set(HttpHeaderNames.CONTENT_RANGE, "bytes */" + fileLength);
+		HttpUtil.setContentLength(response, 0);
+		setDateHeader(response);
+		setConnectionHeader(x, response);
+		complete(x, response);
+	}
+
+	private void sendFileNotFound(Exchange x) {
+		sendError(x, HttpResponseStatus.NOT_FOUND);
+	}
+
+	private void sendError(Exchange x, HttpResponseStatus status) {
 		FullHttpResponse response = new DefaultFullHttpResponse(
 				HTTP_1_1, status, Unpooled.copiedBuffer("Failure: " + status + "\r\n", CharsetUtil.UTF_8));
 		response.headers().set(HttpHeaderNames.SERVER, SERVER_HEADER_VALUE);
 		response.headers().set(HttpHeaderNames.CONTENT_TYPE, "text/plain; charset=UTF-8");
 		response.headers().set(HttpHeaderNames.CONTENT_LENGTH, response.content().readableBytes());
-		response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+		setConnectionHeader(x, response);
 
-		// Close the connection as soon as the error message is sent.
-		ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+		// Close the connection as soon as the error message is sent, unless kept alive.
+		complete(x, response);
 	}
 
-	private void sendException(ChannelHandlerContext ctx, Throwable e) {
+	private void sendException(Exchange x, Throwable e) {
 		if(log.isTraceEnabled())
 			log.trace("delivering exception message to the client");
 
@@ -752,29 +1046,84 @@ public class RequestHandler extends SimpleChannelInboundHandler<HttpObject> {
 		response.headers().set(HttpHeaderNames.SERVER, SERVER_HEADER_VALUE);
 		response.headers().set(HttpHeaderNames.CONTENT_TYPE, "text/html; charset=UTF-8");
 		response.headers().set(HttpHeaderNames.CONTENT_LENGTH, response.content().readableBytes());
-		response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+		setConnectionHeader(x, response);
 
-		ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+		complete(x, response);
 	}
 	
-	private void sendNotModified(ChannelHandlerContext ctx) {
+	private void sendNotModified(Exchange x, StaticFileCache.Entry entry) {
 		if(log.isTraceEnabled())
 			log.trace("sendNotModified file");
 		FullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, HttpResponseStatus.NOT_MODIFIED);
 		response.headers().set(HttpHeaderNames.SERVER, SERVER_HEADER_VALUE);
-		response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+		response.headers().set(HttpHeaderNames.ETAG, entry.getETag());
 		setDateHeader(response);
-		ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+		setDateAndCacheHeaders(response, entry.getLastModified());
+		setConnectionHeader(x, response);
+		complete(x, response);
+	}
+
+	/**
+	 * Sets the Connection header according to the keep-alive state negotiated for the request.
+	 * HTTP/1.0 clients must be told explicitly that the connection is kept open.
+	 */
+	private static void setConnectionHeader(Exchange x, HttpResponse httpResponse) {
+		if(x == null || !x.isKeepAlive()) {
+			httpResponse.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+		}
+		else if(!x.getRequest().protocolVersion().isKeepAliveDefault()) {
+			httpResponse.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
+		}
+		else {
+			httpResponse.headers().remove(HttpHeaderNames.CONNECTION);
+		}
+	}
+
+	/**
+	 * Completes the request: hands the response messages over to the queue, which writes them
+	 * in the order requests were received and closes the connection afterwards unless kept alive.
+	 * The queue belongs to the event loop; responses produced by worker threads are handed over to it.
+	 */
+	private void complete(final Exchange x, final Object... messages) {
+		if(ctx.executor().inEventLoop()) {
+			write(x, messages);
+			return;
+		}
+		try {
+			ctx.executor().execute(new Runnable() {
+				@Override
+				public void run() {
+					write(x, messages);
+				}
+			});
+		}
+		catch(RejectedExecutionException e) {
+			// event loop shut down; the response cannot be written anymore
+			for(Object message: messages)
+				ResponseQueue.release(message);
+			if(x != null)
+				x.recycle();
+		}
+	}
+
+	private void write(Exchange x, Object... messages) {
+		if(x == null) {
+			// response not bound to a request, such as exceptions caught between requests
+			queue.write(queue.add(), true, messages);
+			return;
+		}
+		queue.write(x.getSlot(), !x.isKeepAlive(), messages);
+		x.recycle();
 	}
 	
-	private static void setDateAndCacheHeaders(HttpResponse response, File fileToCache) {
+	private static void setDateAndCacheHeaders(HttpResponse response, long lastModified) {
 		SimpleDateFormat dateFormatter = new SimpleDateFormat(HTTP_DATE_FORMAT, Locale.US);
 		dateFormatter.setTimeZone(TimeZone.getTimeZone(HTTP_DATE_GMT_TIMEZONE));
 		Calendar time = new GregorianCalendar();
 		time.add(Calendar.SECOND, HTTP_CACHE_SECONDS);
 		response.headers().set(HttpHeaderNames.EXPIRES, dateFormatter.format(time.getTime()));
 		response.headers().set(HttpHeaderNames.CACHE_CONTROL, "private, max-age=" + HTTP_CACHE_SECONDS);
-		response.headers().set(HttpHeaderNames.LAST_MODIFIED, dateFormatter.format(new Date(fileToCache.lastModified())));
+		response.headers().set(HttpHeaderNames.LAST_MODIFIED, dateFormatter.format(new Date(lastModified)));
 	}
 	
 	private static void setDateHeader(HttpResponse response) {
@@ -818,20 +1167,20 @@ public class RequestHandler extends SimpleChannelInboundHandler<HttpObject> {
 		return uri;
 	}
 
-	private void reset() {
+	/**
+	 * Releases the body decoder of the request being read, if any.
+	 * @return the exchange whose request body was being decoded
+	 */
+	private Exchange reset() {
 		if(log.isTraceEnabled())
 			log.trace("reset()");
 		// destroy the decoder to release all resources
-		if(decoder != null)
-			ReferenceCountUtil.release(decoder);
-		if(request != null)
-			ReferenceCountUtil.release(request);
-		if(ctx != null)
-			ReferenceCountUtil.release(ctx);
-	}
-
-	@Override
-	public void finalize() {
-		reset();
+		if(decoder != null) {
+			decoder.destroy();
+			decoder = null;
+		}
+		Exchange x = exchange;
+		exchange = null;
+		return x;
 	}
-}
\ No newline at end of file
+}
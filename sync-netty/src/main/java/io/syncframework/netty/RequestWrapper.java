@@ -33,6 +33,7 @@ import io.netty.handler.codec.http.cookie.ServerCookieDecoder;
 import io.syncframework.api.CookieContext;
 import io.syncframework.api.FileUpload;
 import io.syncframework.api.RequestContext;
+import io.syncframework.core.ConversionCache;
 import io.syncframework.core.Request;
 import io.syncframework.core.Session;
 
@@ -43,6 +44,7 @@ import io.syncframework.core.Session;
  */
 public class RequestWrapper implements Request {
 	private static final Logger log = LoggerFactory.getLogger(RequestWrapper.class);
+	private final ConversionCache conversionCache = new ConversionCache();
 	private final CookieContext cookieContext = new CookieContext();
 	private final Map<String, List<String>> headers = new HashMap<String, List<String>>();
 	private final Map<String, List<String>> parameters = new HashMap<String, List<String>>();
@@ -51,6 +53,11 @@ public class RequestWrapper implements Request {
 	private final RequestContext requestContext = new RequestContext();
 	private Session session;
 
+	@Override
+	public ConversionCache getConversionCache() {
+		return conversionCache;
+	}
+
 	@Override
 	public CookieContext getCookieContext() {
 		return cookieContext;
@@ -140,10 +147,13 @@ public class RequestWrapper implements Request {
 	
 	@Override
 	public void recycle() {
+		conversionCache.recycle();
 		cookieContext.clear();
 		files.clear();
 		headers.clear();
 		parameters.clear();
 		requestContext.clear();
+		request = null;
+		session = null;
 	}
 }
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2016 SyncObjects Ltda.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syncframework.netty;
+
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.util.concurrent.FastThreadLocal;
+import io.syncframework.core.ApplicationConfig;
+import io.syncframework.core.ServerConfig;
+
+/**
+ * Compresses dynamic responses with gzip or deflate, as negotiated by the request Accept-Encoding header.
+ * Bodies smaller than the configured minimum size, of MIME types already compressed or carrying their own
+ * Content-Encoding are sent as they are.
+ * 
+ * Settings come from server.properties and may be overridden by each application.properties.
+ * 
+ * @author dfroz
+ */
+public class ResponseCompressor {
+	private static final Logger log = LoggerFactory.getLogger(ResponseCompressor.class);
+	private static final int GZIP_MAGIC = 0x8b1f;
+	private static final int BUFFER_SIZE = 8 * 1024;
+	private static final String GZIP = "gzip";
+	private static final String DEFLATE = "deflate";
+	// deflaters reused by each thread
+	private static final FastThreadLocal<Encoder> encoders = new FastThreadLocal<Encoder>() {
+		@Override
+		protected Encoder initialValue() {
+			return new Encoder();
+		}
+		@Override
+		protected void onRemoval(Encoder encoder) {
+			encoder.end();
+		}
+	};
+	private final ServerConfig config;
+
+	public ResponseCompressor(ServerConfig config) {
+		this.config = config;
+	}
+
+	/**
+	 * @return the compressed response, replacing and releasing the response given, or the same response
+	 * if it is not to be compressed.
+	 */
+	public FullHttpResponse compress(ApplicationConfig application, HttpRequest request, FullHttpResponse response,
+			ByteBufAllocator allocator) {
+		boolean enabled = application.getCompression() != null ? application.getCompression() : config.getCompression();
+		if(!enabled)
+			return response;
+		if(response.headers().contains(HttpHeaderNames.CONTENT_ENCODING))
+			return response;
+		if(response.headers().contains(HttpHeaderNames.CACHE_CONTROL, HttpHeaderValues.NO_TRANSFORM, true))
+			return response;
+
+		int minSize = application.getCompressionMinSize() != null ? application.getCompressionMinSize() : config.getCompressionMinSize();
+		ByteBuf content = response.content();
+		if(content.readableBytes() < minSize)
+			return response;
+
+		String excludedTypes[] = application.getCompressionExcludedTypes() != null ? 
+				application.getCompressionExcludedTypes() : config.getCompressionExcludedTypes();
+		if(isExcluded(response.headers().get(HttpHeaderNames.CONTENT_TYPE), excludedTypes))
+			return response;
+
+		// the response depends on Accept-Encoding whether compressed or not
+		response.headers().add(HttpHeaderNames.VARY, HttpHeaderNames.ACCEPT_ENCODING);
+
+		String encoding = negotiate(request.headers().get(HttpHeaderNames.ACCEPT_ENCODING));
+		if(encoding == null)
+			return response;
+
+		int level = application.getCompressionLevel() != null ? application.getCompressionLevel() : config.getCompressionLevel();
+		boolean gzip = encoding.equals(GZIP);
+		ByteBuf compressed = deflate(content, level, gzip, allocator);
+		if(compressed.readableBytes() >= content.readableBytes()) {
+			// incompressible content
+			compressed.release();
+			return response;
+		}
+		if(log.isTraceEnabled())
+			log.trace("{} compressed response: {} -> {} bytes", encoding, content.readableBytes(), compressed.readableBytes());
+
+		FullHttpResponse compressedResponse = response.replace(compressed);
+		response.release();
+		compressedResponse.headers().set(HttpHeaderNames.CONTENT_ENCODING, encoding);
+		compressedResponse.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, compressed.readableBytes());
+		return compressedResponse;
+	}
+
+	/**
+	 * @return gzip or deflate, gzip preferred, according to the Accept-Encoding header; null for no compression
+	 */
+	private static String negotiate(String acceptEncoding) {
+		if(acceptEncoding == null)
+			return null;
+		float gzip = -1;
+		float deflate = -1;
+		float star = -1;
+		for(String coding: acceptEncoding.split(",")) {
+			float q = 1.0f;
+			int p = coding.indexOf(';');
+			if(p != -1) {
+				String parameter = coding.substring(p + 1).trim();
+				if(parameter.startsWith("q=")) {
+					try { q = Float.parseFloat(parameter.substring(2)); }
+					catch(NumberFormatException e) { q = 0; }
+				}
+				coding = coding.substring(0, p);
+			}
+			coding = coding.trim().toLowerCase();
+			if(coding.equals(GZIP) || coding.equals("x-gzip"))
+				gzip = q;
+			else if(coding.equals(DEFLATE))
+				deflate = q;
+			else if(coding.equals("*"))
+				star = q;
+		}
+		if(gzip == -1)
+			gzip = star;
+		if(deflate == -1)
+			deflate = star;
+		if(gzip > 0 && gzip >= deflate)
+			return GZIP;
+		if(deflate > 0)
+			return DEFLATE;
+		return null;
+	}
+
+	private static boolean isExcluded(String contentType, String excludedTypes[]) {
+		if(contentType == null)
+			return false;
+		int p = contentType.indexOf(';');
+		if(p != -1)
+			contentType = contentType.substring(0, p);
+		contentType = contentType.trim().toLowerCase();
+		for(String type: excludedTypes) {
+			if(type.endsWith("/*")) {
+				if(contentType.startsWith(type.substring(0, type.length() - 1)))
+					return true;
+			}
+			else if(contentType.equals(type)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Compresses the content as gzip (RFC 1952) or as HTTP deflate, the zlib format (RFC 1950).
+	 */
+	private static ByteBuf deflate(ByteBuf content, int level, boolean gzip, ByteBufAllocator allocator) {
+		int length = content.readableBytes();
+		ByteBuf output = allocator.ioBuffer(length / 2 + 32);
+		Encoder encoder = encoders.get();
+		Deflater deflater = encoder.deflater(level, gzip);
+		CRC32 crc = encoder.crc;
+		try {
+			if(gzip) {
+				output.writeShortLE(GZIP_MAGIC);
+				output.writeByte(Deflater.DEFLATED);
+				// flags, modification time, extra flags
+				output.writeZero(6);
+				// operating system: unknown
+				output.writeByte(0xff);
+				crc.reset();
+			}
+			if(content.hasArray()) {
+				byte input[] = content.array();
+				int offset = content.arrayOffset() + content.readerIndex();
+				deflater.setInput(input, offset, length);
+				if(gzip)
+					crc.update(input, offset, length);
+				encoder.drain(deflater, output);
+			}
+			else {
+				// Deflater takes arrays only on Java 8: direct content fed in chunks
+				byte input[] = encoder.input;
+				for(int index = content.readerIndex(), end = index + length; index < end;) {
+					int n = Math.min(input.length, end - index);
+					content.getBytes(index, input, 0, n);
+					index += n;
+					deflater.setInput(input, 0, n);
+					if(gzip)
+						crc.update(input, 0, n);
+					encoder.drain(deflater, output);
+				}
+			}
+			deflater.finish();
+			while(!deflater.finished())
+				output.writeBytes(encoder.output, 0, deflater.deflate(encoder.output));
+			if(gzip) {
+				output.writeIntLE((int)crc.getValue());
+				output.writeIntLE(length);
+			}
+			return output;
+		}
+		catch(RuntimeException e) {
+			output.release();
+			throw e;
+		}
+		finally {
+			deflater.reset();
+		}
+	}
+
+	/**
+	 * Deflaters, checksum and scratch arrays of a thread, reused by all the responses it compresses.
+	 */
+	private static class Encoder {
+		private final CRC32 crc = new CRC32();
+		private final byte input[] = new byte[BUFFER_SIZE];
+		private final byte output[] = new byte[BUFFER_SIZE];
+		// raw deflate for gzip, wrapped by the zlib header and trailer for deflate
+		private Deflater gzipDeflater;
+		private Deflater zlibDeflater;
+		private int gzipLevel;
+		private int zlibLevel;
+
+		private Deflater deflater(int level, boolean gzip) {
+			if(gzip) {
+				if(gzipDeflater == null)
+					gzipDeflater = new Deflater(level, true);
+				else if(gzipLevel != level)
+					gzipDeflater.setLevel(level);
+				gzipLevel = level;
+				return gzipDeflater;
+			}
+			if(zlibDeflater == null)
+				zlibDeflater = new Deflater(level, false);
+			else if(zlibLevel != level)
+				zlibDeflater.setLevel(level);
+			zlibLevel = level;
+			return zlibDeflater;
+		}
+
+		/**
+		 * Compresses the input set, until the deflater needs more
+		 */
+		private void drain(Deflater deflater, ByteBuf out) {
+			while(!deflater.needsInput())
+				out.writeBytes(output, 0, deflater.deflate(output));
+		}
+
+		private void end() {
+			if(gzipDeflater != null)
+				gzipDeflater.end();
+			if(zlibDeflater != null)
+				zlibDeflater.end();
+		}
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2016 SyncObjects Ltda.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syncframework.netty;
+
+import java.util.ArrayDeque;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.stream.ChunkedInput;
+import io.netty.util.ReferenceCountUtil;
+
+/**
+ * Keeps the responses of pipelined requests in the same order their requests were received.
+ * A response is written only after all the responses of the preceding requests have been written;
+ * responses ready at the same time are written together and flushed once.
+ *
+ * When more than <code>depth</code> requests are waiting for their responses, the channel stops reading
+ * until the queue drains.
+ *
+ * This class is not thread safe and shall be accessed by the event loop of the channel owning it.
+ *
+ * @author dfroz
+ */
+public class ResponseQueue {
+	private static final Logger log = LoggerFactory.getLogger(ResponseQueue.class);
+	private final ChannelHandlerContext ctx;
+	private final int depth;
+	private final ArrayDeque<Slot> slots = new ArrayDeque<Slot>();
+	private boolean closed;
+
+	public ResponseQueue(ChannelHandlerContext ctx, int depth) {
+		if(depth < 1)
+			throw new IllegalArgumentException("depth");
+		this.ctx = ctx;
+		this.depth = depth;
+	}
+
+	/**
+	 * Reserves the position of the response for a request just received.
+	 */
+	public Slot add() {
+		Slot slot = new Slot();
+		slots.add(slot);
+		if(slots.size() >= depth && ctx.channel().config().isAutoRead()) {
+			if(log.isTraceEnabled())
+				log.trace("{}: pipelining depth {} reached; suspending reads", ctx.channel(), depth);
+			ctx.channel().config().setAutoRead(false);
+		}
+		return slot;
+	}
+
+	/**
+	 * Sets the messages composing the response of the slot and writes all responses ready to be written.
+	 * @param close closes the connection once this response is written.
+	 */
+	public void write(Slot slot, boolean close, Object... messages) {
+		if(closed) {
+			// connection already closing... discard.
+			for(Object message: messages)
+				release(message);
+			return;
+		}
+		slot.close = close;
+		slot.messages = messages;
+
+		boolean written = false;
+		while(!slots.isEmpty() && slots.peek().messages != null) {
+			Slot s = slots.poll();
+			ChannelFuture future = null;
+			for(Object message: s.messages) {
+				future = ctx.write(message);
+			}
+			written = true;
+			if(s.close) {
+				future.addListener(ChannelFutureListener.CLOSE);
+				clear();
+				break;
+			}
+		}
+		if(written)
+			ctx.flush();
+
+		if(!closed && slots.size() < depth && !ctx.channel().config().isAutoRead())
+			ctx.channel().config().setAutoRead(true);
+	}
+
+	/**
+	 * Discards all the responses still pending; no further response is written.
+	 */
+	public void clear() {
+		closed = true;
+		for(Slot slot: slots) {
+			if(slot.messages != null) {
+				for(Object message: slot.messages)
+					release(message);
+			}
+		}
+		slots.clear();
+	}
+
+	/**
+	 * Releases a response message never written.
+	 */
+	static void release(Object message) {
+		if(message instanceof ChunkedInput) {
+			try { ((ChunkedInput<?>)message).close(); }
+			catch(Exception e) {
+				log.error("failed to close chunked input: ", e);
+			}
+			return;
+		}
+		ReferenceCountUtil.release(message);
+	}
+
+	/**
+	 * @return true when no request is waiting for its response
+	 */
+	public boolean isEmpty() {
+		return slots.isEmpty();
+	}
+
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Position of a response in the queue
+	 */
+	public static class Slot {
+		private boolean close;
+		private Object messages[];
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2016 SyncObjects Ltda.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syncframework.netty;
+
+import java.io.OutputStream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import io.syncframework.core.Response;
+
+/**
+ * Response whose body is written straight into a buffer of the channel allocator (pooled and direct
+ * whenever available), later handed over to the HTTP response with no intermediate copy.
+ * 
+ * The buffer is owned by this object until {@link #content()} is called; {@link #recycle()} releases it otherwise.
+ * 
+ * @author dfroz
+ */
+public class ResponseWrapper extends Response {
+	private final ByteBufAllocator allocator;
+	private ByteBuf buffer;
+	private OutputStream outputStream;
+
+	public ResponseWrapper(ByteBufAllocator allocator) {
+		this.allocator = allocator;
+	}
+
+	@Override
+	public OutputStream getOutputStream() {
+		if(buffer == null) {
+			buffer = allocator.ioBuffer();
+			outputStream = new ByteBufOutputStream(buffer);
+		}
+		return outputStream;
+	}
+
+	@Override
+	public void resetOutputStream() {
+		if(buffer != null)
+			buffer.clear();
+	}
+
+	/**
+	 * Transfers the ownership of the body to the caller, responsible for releasing it.
+	 * @return response body; empty buffer if nothing has been written.
+	 */
+	public ByteBuf content() {
+		if(buffer == null)
+			return Unpooled.EMPTY_BUFFER;
+		ByteBuf content = buffer;
+		buffer = null;
+		outputStream = null;
+		return content;
+	}
+
+	@Override
+	public void recycle() {
+		super.recycle();
+		if(buffer != null) {
+			buffer.release();
+			buffer = null;
+			outputStream = null;
+		}
+	}
+}
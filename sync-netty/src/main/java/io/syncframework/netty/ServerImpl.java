@@ -22,6 +22,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,9 +48,21 @@ import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.http.HttpRequestDecoder;
 import io.netty.handler.codec.http.HttpResponseEncoder;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.HttpServerUpgradeHandler;
+import io.netty.handler.codec.http.HttpServerUpgradeHandler.UpgradeCodec;
+import io.netty.handler.codec.http2.CleartextHttp2ServerUpgradeHandler;
+import io.netty.handler.codec.http2.Http2CodecUtil;
+import io.netty.handler.codec.http2.Http2MultiplexCodec;
+import io.netty.handler.codec.http2.Http2MultiplexCodecBuilder;
+import io.netty.handler.codec.http2.Http2ServerUpgradeCodec;
+import io.netty.handler.codec.http2.Http2Settings;
+import io.netty.handler.codec.http2.Http2StreamFrameToHttpObjectCodec;
+import io.netty.handler.flush.FlushConsolidationHandler;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.AsciiString;
 import io.netty.util.ResourceLeakDetector;
-import io.netty.util.concurrent.DefaultEventExecutorGroup;
-import io.netty.util.concurrent.EventExecutorGroup;
 import io.syncframework.Globals;
 import io.syncframework.core.Application;
 import io.syncframework.core.ApplicationManager;
@@ -65,6 +78,7 @@ public class ServerImpl implements Server {
 	private static final String SYNC_LISTEN_ADDRESS_ENV = "SYNC_LISTEN_ADDRESS";
 	private static final String SYNC_TRUSTED_PROXY_ENV = "SYNC_TRUSTED_PROXY";
 	private static final Logger log = LoggerFactory.getLogger(ServerImpl.class);
+	private static final int HTTP2_UPGRADE_MAX_CONTENT_LENGTH = 64 * 1024;
 	private final ServerConfig config = new ServerConfig();
 	private List<Application> applications;
 	private static final String name = "Netty";
@@ -207,6 +221,9 @@ public class ServerImpl implements Server {
 			}
 		}
 
+		final StaticContentCache contentCache = new StaticContentCache(config.getStaticMemoryCacheSize(), 
+				config.getStaticMemoryCacheMaxFileSize());
+
 		Runtime.getRuntime().addShutdownHook(new Thread("shutdown") {
 			public void run() {
 				if(log.isInfoEnabled())
@@ -217,6 +234,9 @@ public class ServerImpl implements Server {
 					try {
 						if(log.isInfoEnabled())
 							log.info("stopping {}", application);
+						NotFoundCache notFound = NotFoundCache.find(application);
+						if(notFound != null && log.isInfoEnabled())
+							log.info("{}: requests answered by the not found cache: {}", application, notFound.getHits());
 						application.stop();
 					}
 					catch(Exception e) {
@@ -224,14 +244,16 @@ public class ServerImpl implements Server {
 					}
 				}
 
-				if(log.isInfoEnabled())
+				if(log.isInfoEnabled()) {
+					log.info("static files held in memory: {}", contentCache);
 					log.info("@Applications stopped. Goodbye!");
+				}
 			}
 		});
 
 		EventLoopGroup bossGroup = null;
 		EventLoopGroup workerGroup = null;
-		EventExecutorGroup executorGroup = new DefaultEventExecutorGroup(50);
+		final Dispatcher dispatcher = newDispatcher();
 		try {
 			ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.ADVANCED);
 			ServerBootstrap b = new ServerBootstrap();
@@ -259,9 +281,37 @@ public class ServerImpl implements Server {
 				@Override
 				public void initChannel(SocketChannel ch) throws Exception {
 					ChannelPipeline p = ch.pipeline();
-					p.addLast("decoder", new HttpRequestDecoder());
-					p.addLast("encoder", new HttpResponseEncoder());
-					p.addLast(executorGroup, "handler", new RequestHandler(ServerImpl.this));
+					if(config.getHttp2()) {
+						//
+						// HTTP/1.1 codec which is replaced by the HTTP/2 codec with h2c upgrade requests or
+						// connections starting with the HTTP/2 preface (prior knowledge).
+						//
+						HttpServerCodec sourceCodec = new HttpServerCodec();
+						HttpServerUpgradeHandler upgradeHandler = new HttpServerUpgradeHandler(sourceCodec, 
+								new HttpServerUpgradeHandler.UpgradeCodecFactory() {
+									@Override
+									public UpgradeCodec newUpgradeCodec(CharSequence protocol) {
+										if(AsciiString.contentEquals(Http2CodecUtil.HTTP_UPGRADE_PROTOCOL_NAME, protocol))
+											return new Http2ServerUpgradeCodec(newHttp2Codec(dispatcher, contentCache));
+										return null;
+									}
+								}, HTTP2_UPGRADE_MAX_CONTENT_LENGTH);
+						p.addLast("h2c", new CleartextHttp2ServerUpgradeHandler(sourceCodec, upgradeHandler, 
+								newHttp2Codec(dispatcher, contentCache)));
+					}
+					else {
+						p.addLast("decoder", new HttpRequestDecoder());
+						p.addLast("encoder", new HttpResponseEncoder());
+					}
+					if(config.getKeepAlive() && config.getKeepAliveTimeout() > 0) {
+						// closes connections kept alive with no traffic for keepalive.timeout seconds
+						p.addLast("idle", new IdleStateHandler(true, 0, 0, config.getKeepAliveTimeout(), TimeUnit.SECONDS));
+					}
+					if(config.getFlushConsolidationLimit() > 0) {
+						// batches flushes of responses written while requests are still being read
+						p.addLast("flush", new FlushConsolidationHandler(config.getFlushConsolidationLimit(), true));
+					}
+					p.addLast("handler", new RequestHandler(ServerImpl.this, dispatcher, contentCache));
 				}
 			});
 			try {
@@ -283,8 +333,10 @@ public class ServerImpl implements Server {
 				System.exit(1);
 			}
 		} finally {
-			if(executorGroup != null)
-				executorGroup.shutdownGracefully();
+			dispatcher.shutdown();
+			if(log.isInfoEnabled())
+				log.info("{} dispatcher stopped: {}", this, dispatcher);
+			contentCache.clear();
 			if(bossGroup != null)
 				bossGroup.shutdownGracefully();
 			if(workerGroup != null)
@@ -292,6 +344,48 @@ public class ServerImpl implements Server {
 		}
 	}
 
+	/**
+	 * HTTP/2 codec mapping each stream to its own child channel; each stream has its frames translated
+	 * into HTTP/1.1 objects and handled by a {@link RequestHandler} as any other request.
+	 */
+	private Http2MultiplexCodec newHttp2Codec(final Dispatcher dispatcher, final StaticContentCache contentCache) {
+		Http2Settings settings = Http2Settings.defaultSettings().maxConcurrentStreams(config.getHttp2MaxConcurrentStreams());
+		return Http2MultiplexCodecBuilder.forServer(new ChannelInitializer<Channel>() {
+			@Override
+			protected void initChannel(Channel ch) throws Exception {
+				ChannelPipeline p = ch.pipeline();
+				p.addLast("codec", new Http2StreamFrameToHttpObjectCodec(true));
+				// files are sent as chunks on streams, honoring the stream flow control window
+				p.addLast("chunked", new ChunkedWriteHandler());
+				p.addLast("handler", new RequestHandler(ServerImpl.this, dispatcher, contentCache));
+			}
+		}).initialSettings(settings).build();
+	}
+
+	/**
+	 * Creates the {@link Dispatcher} executing the \@Action methods according to the <code>dispatcher</code> property.
+	 */
+	private Dispatcher newDispatcher() {
+		String strategy = config.getDispatcher();
+		Dispatcher dispatcher = null;
+		if("inline".equalsIgnoreCase(strategy))
+			dispatcher = new InlineDispatcher();
+		else if("threadpool".equalsIgnoreCase(strategy))
+			dispatcher = new ThreadPoolDispatcher(config.getDispatcherThreads(), config.getDispatcherQueue());
+		else if("virtual".equalsIgnoreCase(strategy) && VirtualThreadDispatcher.isSupported())
+			dispatcher = new VirtualThreadDispatcher(config.getDispatcherConcurrency(), config.getDispatcherQueue());
+		else {
+			if("virtual".equalsIgnoreCase(strategy))
+				log.warn("{} virtual threads not supported by the JVM; utilizing workstealing", this);
+			else if(!"workstealing".equalsIgnoreCase(strategy))
+				log.warn("{} unknown dispatcher: {}; utilizing workstealing", this, strategy);
+			dispatcher = new WorkStealingDispatcher(config.getDispatcherThreads(), config.getDispatcherQueue());
+		}
+		if(log.isInfoEnabled())
+			log.info("{} dispatching actions with {}", this, dispatcher.getClass().getSimpleName());
+		return dispatcher;
+	}
+
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
 		sb.append("@Server ").append(name);
@@ -0,0 +1,359 @@
+/*
+ * Copyright 2016 SyncObjects Ltda.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syncframework.netty;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.IllegalReferenceCountException;
+
+/**
+ * Keeps the content of small and frequently requested public files (CSS, JS, icons...) in memory, as read-only
+ * direct buffers shared by all the responses sending them.
+ *
+ * The cache is shared by all applications, holding up to <code>static.memory.cache.size</code> bytes of files
+ * up to <code>static.memory.cache.max.file.size</code> bytes each. The request frequencies of all files are
+ * estimated by a small count-min sketch whose counters are halved from time to time, so files no longer
+ * requested give way to new ones. Once full, a file is admitted only if it is requested more often than the
+ * files it would evict, taken in insertion order; a victim found hotter is given a second chance at the tail.
+ *
+ * Lookups never block: a file not held is sent from disk, while its content is read by a loader thread and
+ * published for the next requests.
+ *
+ * @author dfroz
+ */
+public class StaticContentCache {
+	private static final Logger log = LoggerFactory.getLogger(StaticContentCache.class);
+	private static final int DEPTH = 4;
+	private static final int SEEDS[] = { 0x97cb3127, 0x0ba1a3d5, 0x5bd1e995, 0x7feb352d };
+	private static final int PENDING_LOADS = 256;
+	private final ConcurrentHashMap<String,Item> items = new ConcurrentHashMap<String,Item>();
+	// files being read by the loader
+	private final ConcurrentHashMap<String,Boolean> loading = new ConcurrentHashMap<String,Boolean>();
+	// files in insertion order, holding the next victims; guarded by this
+	private final ArrayDeque<Item> queue = new ArrayDeque<Item>();
+	// next file to be evicted, read without locking to avoid reading files that would not be admitted
+	private volatile Item nextVictim;
+	private final ThreadPoolExecutor loader;
+	private final long capacity;
+	private final long maxFileSize;
+	// count-min sketch; racy increments only lose a few counts of an estimate
+	private final int sketch[];
+	private final int width;
+	private final long agingPeriod;
+	private final AtomicLong accesses = new AtomicLong();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	// written under the lock, read by the lookups without locking
+	private volatile long size;
+
+	public StaticContentCache(long capacity, long maxFileSize) {
+		this.capacity = capacity;
+		this.maxFileSize = Math.min(maxFileSize, capacity);
+		// about one counter per KB held, per row
+		int width = 1024;
+		while(width < (1 << 20) && width < capacity / 1024)
+			width <<= 1;
+		this.width = width;
+		this.sketch = new int[DEPTH * width];
+		this.agingPeriod = 10L * width;
+		this.loader = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(PENDING_LOADS),
+				new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread t = new Thread(r, "static-content-loader");
+						t.setDaemon(true);
+						return t;
+					}
+				});
+		this.loader.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * @return content of the file as a retained duplicate to be released by the caller, or null if the file
+	 * is not held in memory.
+	 */
+	public ByteBuf get(StaticFileCache.Entry entry) {
+		if(capacity <= 0 || !entry.isPublic() || entry.getLength() > maxFileSize)
+			return null;
+
+		String key = entry.getFile().getPath();
+		int hash = spread(key.hashCode());
+		increment(hash);
+
+		Item item = items.get(key);
+		if(item != null && item.isVersionOf(entry)) {
+			ByteBuf content = item.retain();
+			if(content != null) {
+				hits.increment();
+				return content;
+			}
+		}
+		misses.increment();
+
+		// read in the background only if likely to be admitted
+		Item victim = nextVictim;
+		if(item == null && victim != null && size + entry.getLength() > capacity && frequency(hash) <= frequency(victim.hash))
+			return null;
+		if(loading.putIfAbsent(key, Boolean.TRUE) == null) {
+			try {
+				loader.execute(new Loader(key, hash, entry));
+			}
+			catch(RejectedExecutionException e) {
+				loading.remove(key);
+			}
+		}
+		return null;
+	}
+
+	private class Loader implements Runnable {
+		private final String key;
+		private final int hash;
+		private final StaticFileCache.Entry entry;
+
+		private Loader(String key, int hash, StaticFileCache.Entry entry) {
+			this.key = key;
+			this.hash = hash;
+			this.entry = entry;
+		}
+
+		@Override
+		public void run() {
+			try {
+				ByteBuf content = read(entry);
+				if(content != null && !admit(key, hash, entry, content))
+					content.release();
+			}
+			finally {
+				loading.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Publishes the content read, evicting colder files as needed.
+	 * @return false if not admitted; nothing is evicted then
+	 */
+	private synchronized boolean admit(String key, int hash, StaticFileCache.Entry entry, ByteBuf content) {
+		if(loader.isShutdown())
+			return false;
+		Item current = items.get(key);
+		if(current != null) {
+			if(current.isVersionOf(entry))
+				return false; // loaded meanwhile
+			// file modified
+			remove(current);
+		}
+
+		// victims needed to make room, decided before evicting any
+		long length = entry.getLength();
+		long room = capacity - size;
+		int frequency = frequency(hash);
+		int victims = 0;
+		Item hotter = null;
+		for(Iterator<Item> i = queue.iterator(); room < length && i.hasNext();) {
+			Item victim = i.next();
+			if(items.get(victim.key) != victim) {
+				// removed meanwhile
+				i.remove();
+				continue;
+			}
+			if(frequency(victim.hash) >= frequency) {
+				// second chance for the victim found hotter
+				i.remove();
+				hotter = victim;
+				break;
+			}
+			room += victim.length;
+			victims++;
+		}
+		if(hotter != null)
+			queue.addLast(hotter);
+		if(room < length) {
+			// not requested often enough to take the place of the files cached
+			nextVictim = queue.peekFirst();
+			return false;
+		}
+
+		while(victims > 0) {
+			Item victim = queue.pollFirst();
+			if(items.get(victim.key) != victim)
+				continue;
+			if(log.isTraceEnabled())
+				log.trace("evicting file {} from memory; frequency {}", victim.key, frequency(victim.hash));
+			remove(victim);
+			evictions.increment();
+			victims--;
+		}
+
+		Item item = new Item(key, hash, content, entry);
+		items.put(key, item);
+		queue.addLast(item);
+		size += length;
+		nextVictim = queue.peekFirst();
+		if(log.isTraceEnabled())
+			log.trace("file {} held in memory; {}", key, this);
+		return true;
+	}
+
+	private void remove(Item item) {
+		if(items.remove(item.key, item)) {
+			size -= item.length;
+			item.content.release();
+		}
+	}
+
+	private void increment(int hash) {
+		for(int i = 0; i < DEPTH; i++)
+			sketch[index(hash, i)]++;
+		// halves the counters once the accesses reach ten times the width of the sketch
+		long n = accesses.incrementAndGet();
+		if(n >= agingPeriod && accesses.compareAndSet(n, 0)) {
+			for(int i = 0; i < sketch.length; i++)
+				sketch[i] >>>= 1;
+		}
+	}
+
+	private int frequency(int hash) {
+		int frequency = Integer.MAX_VALUE;
+		for(int i = 0; i < DEPTH; i++)
+			frequency = Math.min(frequency, sketch[index(hash, i)]);
+		return frequency;
+	}
+
+	private int index(int hash, int row) {
+		int h = (hash ^ SEEDS[row]) * 0x9e3779b9;
+		return row * width + ((h ^ (h >>> 16)) & (width - 1));
+	}
+
+	private static int spread(int h) {
+		h *= 0x85ebca6b;
+		return h ^ (h >>> 13);
+	}
+
+	private static ByteBuf read(StaticFileCache.Entry entry) {
+		int length = (int)entry.getLength();
+		ByteBuf content = Unpooled.directBuffer(length, length);
+		try {
+			FileChannel channel = FileChannel.open(entry.getFile().toPath(), StandardOpenOption.READ);
+			try {
+				while(content.isWritable()) {
+					if(content.writeBytes(channel, content.writableBytes()) < 0)
+						break;
+				}
+				if(content.isWritable() || channel.size() != length) {
+					// file changed since resolved
+					content.release();
+					return null;
+				}
+			}
+			finally {
+				channel.close();
+			}
+		}
+		catch(IOException e) {
+			if(log.isDebugEnabled())
+				log.debug("failed to read file {}: {}", entry.getFile(), e.toString());
+			content.release();
+			return null;
+		}
+		return content.asReadOnly();
+	}
+
+	/**
+	 * Stops loading files and releases all the content held
+	 */
+	public synchronized void clear() {
+		loader.shutdownNow();
+		for(Item item: items.values())
+			remove(item);
+		queue.clear();
+		nextVictim = null;
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+	public long getMisses() {
+		return misses.sum();
+	}
+	public long getEvictions() {
+		return evictions.sum();
+	}
+	public long getSize() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("StaticContentCache[files: ").append(items.size());
+		sb.append("; bytes: ").append(getSize()).append("/").append(capacity);
+		sb.append("; hits: ").append(getHits());
+		sb.append("; misses: ").append(getMisses());
+		sb.append("; evictions: ").append(getEvictions()).append("]");
+		return sb.toString();
+	}
+
+	private static class Item {
+		private final String key;
+		private final int hash;
+		private final ByteBuf content;
+		private final long length;
+		private final long lastModified;
+
+		private Item(String key, int hash, ByteBuf content, StaticFileCache.Entry entry) {
+			this.key = key;
+			this.hash = hash;
+			this.content = content;
+			this.length = entry.getLength();
+			this.lastModified = entry.getLastModified();
+		}
+
+		private boolean isVersionOf(StaticFileCache.Entry entry) {
+			return length == entry.getLength() && lastModified == entry.getLastModified();
+		}
+
+		/**
+		 * @return duplicate retained for a response; null if evicted meanwhile
+		 */
+		private ByteBuf retain() {
+			try {
+				return content.retainedDuplicate();
+			}
+			catch(IllegalReferenceCountException e) {
+				return null;
+			}
+		}
+	}
+}
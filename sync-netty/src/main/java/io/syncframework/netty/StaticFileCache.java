@@ -0,0 +1,257 @@
+/*
+ * Copyright 2016 SyncObjects Ltda.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syncframework.netty;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.syncframework.api.ApplicationContext;
+import io.syncframework.core.Application;
+import io.syncframework.core.ServerConfig;
+
+/**
+ * Per \@Application cache of the files resolved to be sent: normalized path, size, modification time, 
+ * content type and the verdict whether the file may be sent. Files not found are cached as well, saving the
+ * file system lookups of requests handled dynamically.
+ * 
+ * Entries are revalidated once older than <code>static.cache.ttl</code> seconds. The cache holds up to 
+ * <code>static.cache.entries</code> entries, evicting expired entries first.
+ * 
+ * The cache is kept by the ApplicationContext, so it is discarded whenever the application restarts.
+ * 
+ * @author dfroz
+ */
+public class StaticFileCache {
+	private static final Logger log = LoggerFactory.getLogger(StaticFileCache.class);
+	private static final String CONTEXT_KEY = StaticFileCache.class.getName();
+	private final ConcurrentHashMap<String,Entry> entries = new ConcurrentHashMap<String,Entry>();
+	private final Application application;
+	private final String publicDirectory;
+	private final String privateDirectory;
+	private final int maxEntries;
+	private final long ttl;
+
+	public enum Status {
+		/** regular file which may be sent */
+		FILE,
+		/** directory; left to the dynamic handling */
+		DIRECTORY,
+		/** hidden file; handled as not found */
+		HIDDEN,
+		/** not a regular file or located outside the Public and Private folders */
+		FORBIDDEN,
+		/** file does not exist */
+		NOT_FOUND
+	}
+
+	public StaticFileCache(Application application, int maxEntries, int ttlSeconds) {
+		this.application = application;
+		this.publicDirectory = normalize(application.getConfig().getPublicDirectory()) + File.separator;
+		this.privateDirectory = normalize(application.getConfig().getPrivateDirectory()) + File.separator;
+		this.maxEntries = maxEntries;
+		this.ttl = TimeUnit.SECONDS.toNanos(ttlSeconds);
+	}
+
+	/**
+	 * @return the cache of the application, created on the first call.
+	 */
+	public static StaticFileCache get(Application application, ServerConfig config) {
+		ApplicationContext context = application.getContext();
+		StaticFileCache cache = (StaticFileCache)context.get(CONTEXT_KEY);
+		if(cache == null) {
+			cache = new StaticFileCache(application, config.getStaticCacheEntries(), config.getStaticCacheTtl());
+			StaticFileCache previous = (StaticFileCache)context.putIfAbsent(CONTEXT_KEY, cache);
+			if(previous != null)
+				cache = previous;
+		}
+		return cache;
+	}
+
+	public Entry lookup(File file) {
+		long now = System.nanoTime();
+		if(ttl <= 0 || maxEntries <= 0)
+			return resolve(file, now);
+
+		String key = file.getPath();
+		Entry entry = entries.get(key);
+		if(entry != null && now - entry.checked < ttl)
+			return entry;
+
+		Entry resolved = resolve(file, now);
+		if(entry == null && entries.size() >= maxEntries)
+			evict(now);
+		entries.put(key, resolved);
+		return resolved;
+	}
+
+	/**
+	 * Resolves the file again, replacing its entry: the file was found modified before the entry expired.
+	 */
+	public Entry revalidate(File file) {
+		Entry resolved = resolve(file, System.nanoTime());
+		if(ttl > 0 && maxEntries > 0)
+			entries.put(file.getPath(), resolved);
+		return resolved;
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	private Entry resolve(File file, long now) {
+		if(log.isTraceEnabled())
+			log.trace("{}: resolving file: {}", application, file);
+
+		BasicFileAttributes attributes = null;
+		try {
+			attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+		}
+		catch(NoSuchFileException e) {
+			return new Entry(Status.NOT_FOUND, file, now);
+		}
+		catch(IOException e) {
+			if(log.isDebugEnabled())
+				log.debug("{}: failed to read attributes of file {}: {}", application, file, e.toString());
+			return new Entry(Status.FORBIDDEN, file, now);
+		}
+		if(file.isHidden())
+			return new Entry(Status.HIDDEN, file, now);
+		if(attributes.isDirectory())
+			return new Entry(Status.DIRECTORY, file, now);
+		if(!attributes.isRegularFile())
+			return new Entry(Status.FORBIDDEN, file, now);
+
+		//
+		// Check if the file resides under the PUBLIC or PRIVATE folders. 
+		// More important point for this verification is with PUBLIC requests where multiples ../../../..
+		// may lead to security breach - exposing unwanted system files.
+		//
+		String path = normalize(file);
+		if(!path.startsWith(publicDirectory) && !path.startsWith(privateDirectory)) {
+			log.error("{}: file {} is not located under Public or Private folders", application, path);
+			return new Entry(Status.FORBIDDEN, file, now);
+		}
+
+		long length = attributes.size();
+		long lastModified = attributes.lastModifiedTime().toMillis();
+		return new Entry(Status.FILE, new File(path), length, lastModified, MimeUtils.getContentType(file), 
+				path.startsWith(publicDirectory), etag(length, lastModified), now);
+	}
+
+	/**
+	 * Removes the expired entries; when none has expired, removes a tenth of the entries.
+	 */
+	private void evict(long now) {
+		for(Iterator<Entry> i = entries.values().iterator(); i.hasNext();) {
+			if(now - i.next().checked >= ttl)
+				i.remove();
+		}
+		int excess = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+		for(Iterator<Entry> i = entries.values().iterator(); i.hasNext() && excess > 0; excess--) {
+			i.next();
+			i.remove();
+		}
+		if(log.isTraceEnabled())
+			log.trace("{}: static file cache evicted; {} entries left", application, entries.size());
+	}
+
+	/**
+	 * Entity tag derived from the modification time and length of the file. Files modified within the last second 
+	 * may change again without changing their modification time, so their tag is weak.
+	 */
+	private static String etag(long length, long lastModified) {
+		String etag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length) + "\"";
+		if(System.currentTimeMillis() - lastModified < 1000)
+			return "W/" + etag;
+		return etag;
+	}
+
+	private static String normalize(File file) {
+		Path path = file.toPath().toAbsolutePath().normalize();
+		return path.toString();
+	}
+
+	/**
+	 * File resolved
+	 */
+	public static class Entry {
+		private final Status status;
+		private final File file;
+		private final long length;
+		private final long lastModified;
+		private final String contentType;
+		private final boolean publicFile;
+		private final String etag;
+		private final long checked;
+
+		private Entry(Status status, File file, long checked) {
+			this(status, file, -1, 0, null, false, null, checked);
+		}
+
+		private Entry(Status status, File file, long length, long lastModified, String contentType, boolean publicFile,
+				String etag, long checked) {
+			this.status = status;
+			this.file = file;
+			this.length = length;
+			this.lastModified = lastModified;
+			this.contentType = contentType;
+			this.publicFile = publicFile;
+			this.checked = checked;
+			this.etag = etag;
+		}
+
+		public Status getStatus() {
+			return status;
+		}
+		public File getFile() {
+			return file;
+		}
+		public long getLength() {
+			return length;
+		}
+		public long getLastModified() {
+			return lastModified;
+		}
+		public String getContentType() {
+			return contentType;
+		}
+		/**
+		 * @return true when located under the Public folder
+		 */
+		public boolean isPublic() {
+			return publicFile;
+		}
+		/**
+		 * @return entity tag of this version of the file; weak (W/ prefixed) if recently modified
+		 */
+		public String getETag() {
+			return etag;
+		}
+		public boolean isWeakETag() {
+			return etag != null && etag.startsWith("W/");
+		}
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2016 SyncObjects Ltda.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syncframework.netty;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+/**
+ * Executes each task by the first thread available of a fixed pool sharing a single bounded queue. 
+ * Requests are not sticky to a channel: requests of the same connection may run on different threads.
+ * 
+ * @author dfroz
+ */
+public class ThreadPoolDispatcher extends AbstractDispatcher {
+	private final ThreadPoolExecutor pool;
+
+	public ThreadPoolDispatcher(int threads, int capacity) {
+		if(threads < 1)
+			throw new IllegalArgumentException("threads");
+		if(capacity < 1)
+			throw new IllegalArgumentException("capacity");
+		this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, 
+				new ArrayBlockingQueue<Runnable>(capacity), new DefaultThreadFactory("dispatcher"));
+	}
+
+	@Override
+	protected void execute(Runnable task) {
+		pool.execute(task);
+	}
+
+	@Override
+	public void shutdown() {
+		pool.shutdown();
+	}
+}
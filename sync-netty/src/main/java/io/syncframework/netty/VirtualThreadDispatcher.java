@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016 SyncObjects Ltda.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syncframework.netty;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes each task by a new virtual thread, so actions blocking on JDBC or remote calls do not hold
+ * platform threads. At most <code>concurrency</code> tasks execute at the same time; further tasks wait 
+ * for a permit (queue depth) and, above <code>capacity</code> waiting tasks, are rejected.
+ * 
+ * Virtual threads are available on Java 21 or later; they are looked up by reflection as the framework 
+ * targets Java 8. Use {@link #isSupported()} before creating an instance.
+ * 
+ * @author dfroz
+ */
+public class VirtualThreadDispatcher extends AbstractDispatcher {
+	private static final Logger log = LoggerFactory.getLogger(VirtualThreadDispatcher.class);
+	private static final Method newVirtualThreadPerTaskExecutor = lookup();
+	private final ExecutorService executor;
+	private final Semaphore permits;
+	private final int capacity;
+
+	public VirtualThreadDispatcher(int concurrency, int capacity) {
+		if(!isSupported())
+			throw new UnsupportedOperationException("virtual threads not supported by the JVM");
+		if(concurrency < 1)
+			throw new IllegalArgumentException("concurrency");
+		if(capacity < 1)
+			throw new IllegalArgumentException("capacity");
+		this.permits = new Semaphore(concurrency);
+		this.capacity = capacity;
+		this.executor = newExecutor();
+	}
+
+	/**
+	 * @return true when the JVM is able to run virtual threads
+	 */
+	public static boolean isSupported() {
+		return newVirtualThreadPerTaskExecutor != null;
+	}
+
+	@Override
+	protected void execute(final Runnable task) {
+		// queue depth already accounts for this task
+		if(getQueueDepth() > capacity)
+			throw new RejectedExecutionException("dispatcher queue is full: "+capacity);
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				// a virtual thread waiting for the permit is cheap; the task is accounted as queued meanwhile
+				permits.acquireUninterruptibly();
+				try {
+					task.run();
+				}
+				finally {
+					permits.release();
+				}
+			}
+		});
+	}
+
+	@Override
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	private static ExecutorService newExecutor() {
+		try {
+			return (ExecutorService)newVirtualThreadPerTaskExecutor.invoke(null);
+		}
+		catch(Exception e) {
+			throw new IllegalStateException("failed to create virtual threads executor", e);
+		}
+	}
+
+	private static Method lookup() {
+		try {
+			Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			// preview releases declare the method but fail unless --enable-preview is set
+			((ExecutorService)method.invoke(null)).shutdown();
+			return method;
+		}
+		catch(Throwable t) {
+			if(log.isDebugEnabled())
+				log.debug("virtual threads not available: {}", t.toString());
+			return null;
+		}
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2016 SyncObjects Ltda.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syncframework.netty;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Executes the tasks by a work stealing pool; idle threads take queued tasks from the busy ones.
+ * The pool queue is bounded by <code>capacity</code>, further tasks being rejected.
+ * 
+ * @author dfroz
+ */
+public class WorkStealingDispatcher extends AbstractDispatcher {
+	private final ForkJoinPool pool;
+	private final int capacity;
+
+	public WorkStealingDispatcher(int threads, int capacity) {
+		if(threads < 1)
+			throw new IllegalArgumentException("threads");
+		if(capacity < 1)
+			throw new IllegalArgumentException("capacity");
+		this.capacity = capacity;
+		this.pool = new ForkJoinPool(threads, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+			@Override
+			public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+				ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+				thread.setName("dispatcher-"+thread.getPoolIndex());
+				return thread;
+			}
+		}, null, true);
+	}
+
+	@Override
+	protected void execute(Runnable task) {
+		// queue depth already accounts for this task
+		if(getQueueDepth() > capacity)
+			throw new RejectedExecutionException("dispatcher queue is full: "+capacity);
+		pool.execute(task);
+	}
+
+	@Override
+	public void shutdown() {
+		pool.shutdown();
+	}
+}
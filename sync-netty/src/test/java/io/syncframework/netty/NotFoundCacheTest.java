@@ -0,0 +1,60 @@
+package io.syncframework.netty;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class NotFoundCacheTest {
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	@Test
+	public void t01hits() {
+		NotFoundCache cache = new NotFoundCache(64, 10);
+		Assert.assertFalse(cache.contains("/missing.png", 0));
+		cache.add("/missing.png?v=1", 0);
+		// the query string is ignored
+		Assert.assertTrue(cache.contains("/missing.png", 0));
+		Assert.assertTrue(cache.contains("/missing.png?v=2", SECOND));
+		Assert.assertFalse(cache.contains("/missing.pn", 0));
+		Assert.assertFalse(cache.contains("/missing.png/", 0));
+		Assert.assertFalse(cache.contains("/login", 0));
+		Assert.assertEquals(2, cache.getHits());
+	}
+
+	@Test
+	public void t02ttl() {
+		NotFoundCache cache = new NotFoundCache(64, 10);
+		cache.add("/missing.png", 0);
+		Assert.assertTrue(cache.contains("/missing.png", 10 * SECOND - 1));
+		Assert.assertFalse(cache.contains("/missing.png", 10 * SECOND));
+		// added again
+		cache.add("/missing.png", 10 * SECOND);
+		Assert.assertTrue(cache.contains("/missing.png", 11 * SECOND));
+	}
+
+	@Test
+	public void t03overwrite() {
+		// a single slot shared by all the URLs
+		NotFoundCache cache = new NotFoundCache(1, 10);
+		cache.add("/a", 0);
+		Assert.assertTrue(cache.contains("/a", 0));
+		Assert.assertFalse(cache.contains("/b", 0));
+		cache.add("/b", 0);
+		Assert.assertTrue(cache.contains("/b", 0));
+		Assert.assertFalse(cache.contains("/a", 0));
+	}
+
+	@Test
+	public void t04disabled() {
+		NotFoundCache cache = new NotFoundCache(0, 10);
+		cache.add("/a", 0);
+		Assert.assertFalse(cache.contains("/a", 0));
+		cache = new NotFoundCache(64, 0);
+		cache.add("/a", 0);
+		Assert.assertFalse(cache.contains("/a", 0));
+	}
+}